@@ -0,0 +1,67 @@
+package br.com.erudio.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "security.password")
+public class PasswordHashingConfig {
+
+    private long targetHashMillis = 100;
+    private int minIterations = 185000;
+    private int maxIterations = 2000000;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 64;
+    private long retryAfterSeconds = 2;
+
+    public PasswordHashingConfig() {
+    }
+
+    public long getTargetHashMillis() {
+        return targetHashMillis;
+    }
+
+    public void setTargetHashMillis(long targetHashMillis) {
+        this.targetHashMillis = targetHashMillis;
+    }
+
+    public int getMinIterations() {
+        return minIterations;
+    }
+
+    public void setMinIterations(int minIterations) {
+        this.minIterations = minIterations;
+    }
+
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    public void setMaxIterations(int maxIterations) {
+        this.maxIterations = maxIterations;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    public void setRetryAfterSeconds(long retryAfterSeconds) {
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
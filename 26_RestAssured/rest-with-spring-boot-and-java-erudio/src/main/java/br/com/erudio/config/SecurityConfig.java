@@ -1,7 +1,10 @@
 package br.com.erudio.config;
 
+import br.com.erudio.security.AdaptivePbkdf2PasswordEncoder;
+import br.com.erudio.security.BoundedPasswordEncoder;
 import br.com.erudio.security.jwt.JwtTokenFilter;
 import br.com.erudio.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -11,20 +14,25 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import java.util.HashMap;
-import java.util.Map;
 
 @EnableWebSecurity
 @Configuration
 public class SecurityConfig {
 
 
+    private static final String[] PUBLIC_PATHS = {
+            "/auth/signin",
+            "/auth/refresh/**",
+            "/auth/createUser",
+            "/swagger-ui/**",
+            "/v3/api-docs/**",
+            "/actuator/health"
+    };
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
@@ -33,18 +41,13 @@ public class SecurityConfig {
     }
 
     @Bean
-    PasswordEncoder passwordEncoder() {
-
-        PasswordEncoder pbkdf2Encoder = new Pbkdf2PasswordEncoder(
-                "", 8, 185000,
-                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    PasswordEncoder passwordEncoder(PasswordHashingConfig config, MeterRegistry meterRegistry) {
 
-        Map<String, PasswordEncoder> encoders = new HashMap<>();
-        encoders.put("pbkdf2", pbkdf2Encoder);
-        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
+        PasswordEncoder pbkdf2Encoder = AdaptivePbkdf2PasswordEncoder.calibrated(
+                config.getTargetHashMillis(), config.getMinIterations(), config.getMaxIterations());
 
-        passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder);
-        return passwordEncoder;
+        return new BoundedPasswordEncoder(pbkdf2Encoder, config.getWorkers(), config.getQueueCapacity(),
+                config.getRetryAfterSeconds(), meterRegistry);
     }
 
     @Bean
@@ -53,8 +56,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
-        JwtTokenFilter filter = new JwtTokenFilter(tokenProvider);
+    SecurityFilterChain securityFilterChain(HttpSecurity http, MeterRegistry meterRegistry) throws Exception {
+        JwtTokenFilter filter = new JwtTokenFilter(tokenProvider, meterRegistry, PUBLIC_PATHS);
         //@formatter:off
         return http
                 .httpBasic(AbstractHttpConfigurer::disable)
@@ -65,14 +68,9 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(
                         authorizeHttpRequests -> authorizeHttpRequests
-                                .requestMatchers(
-                                        "/auth/signin",
-                                        "/auth/refresh/**",
-                                        "/auth/createUser",
-                                        "/swagger-ui/**",
-                                        "/v3/api-docs/**"
-                                ).permitAll()
+                                .requestMatchers(PUBLIC_PATHS).permitAll()
                                 .requestMatchers("/api/**").authenticated()
+                                .requestMatchers("/actuator/**").authenticated()
                                 .requestMatchers("/users").denyAll()
                 )
                 .cors(cors -> {})
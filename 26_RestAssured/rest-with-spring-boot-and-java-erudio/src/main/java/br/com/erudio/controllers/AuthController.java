@@ -2,8 +2,10 @@ package br.com.erudio.controllers;
 
 import br.com.erudio.controllers.docs.AuthControllerDocs;
 import br.com.erudio.data.dto.security.AccountCredentialsDTO;
+import br.com.erudio.security.LoginRateLimiter;
 import br.com.erudio.services.AuthService;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,11 +21,15 @@ public class AuthController implements AuthControllerDocs {
     @Autowired
     AuthService service;
 
+    @Autowired
+    LoginRateLimiter rateLimiter;
+
     @PostMapping("/signin")
     @Override
-    public ResponseEntity<?> signin(@RequestBody AccountCredentialsDTO credentials) {
+    public ResponseEntity<?> signin(@RequestBody AccountCredentialsDTO credentials, HttpServletRequest request) {
         if (credentialsIsInvalid(credentials))
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
+        rateLimiter.checkLogin(credentials.getUsername(), request.getRemoteAddr());
         var token = service.signIn(credentials);
 
         if (token == null) ResponseEntity.status(HttpStatus.FORBIDDEN).body("Invalid client request!");
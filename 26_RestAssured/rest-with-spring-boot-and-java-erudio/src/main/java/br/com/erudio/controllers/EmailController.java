@@ -1,6 +1,7 @@
 package br.com.erudio.controllers;
 
 import br.com.erudio.controllers.docs.EmailControllerDocs;
+import br.com.erudio.data.dto.EmailDeliveryDTO;
 import br.com.erudio.data.dto.request.EmailRequestDTO;
 import br.com.erudio.services.EmailService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,17 +20,15 @@ public class EmailController implements EmailControllerDocs {
 
     @PostMapping
     @Override
-    public ResponseEntity<String> sendEmail(@RequestBody EmailRequestDTO emailRequest) {
-        service.sendSimpleEmail(emailRequest);
-        return new ResponseEntity<>("e-mail sent with success!", HttpStatus.OK);
+    public ResponseEntity<EmailDeliveryDTO> sendEmail(@RequestBody EmailRequestDTO emailRequest) {
+        return new ResponseEntity<>(service.sendSimpleEmail(emailRequest), HttpStatus.ACCEPTED);
     }
 
     @PostMapping(value = "/withAttachment", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Override
-    public ResponseEntity<String> sendEmailWithAttachment(
+    public ResponseEntity<EmailDeliveryDTO> sendEmailWithAttachment(
             @RequestParam("emailRequest") String emailRequest,
             @RequestParam("attachment") MultipartFile attachment) {
-        service.sendEmailWithAttachment(emailRequest, attachment);
-        return new ResponseEntity<>("e-mail sent with attachment success!", HttpStatus.OK);
+        return new ResponseEntity<>(service.sendEmailWithAttachment(emailRequest, attachment), HttpStatus.ACCEPTED);
     }
 }
@@ -1,24 +1,27 @@
 package br.com.erudio.controllers;
 
 import br.com.erudio.controllers.docs.PersonControllerDocs;
+import br.com.erudio.data.dto.ImportSummaryDTO;
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.exporter.MediaTypes;
 import br.com.erudio.services.PersonService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -49,6 +52,13 @@ public class PersonController implements PersonControllerDocs {
         return service.massCreation(file);
     }
 
+    @PostMapping(value = "/massCreation/stream",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ImportSummaryDTO streamMassCreation(@RequestParam("file") MultipartFile file) {
+        return service.streamMassCreation(file);
+    }
+
 
     @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
@@ -62,10 +72,21 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok(service.findAll(pageable));
     }
 
+    @GetMapping(value = "/scroll", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<CollectionModel<EntityModel<PersonDTO>>> scroll(
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "cursor", required = false) String cursor
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        return ResponseEntity.ok(service.scroll(cursor, size, sortDirection));
+    }
+
     @GetMapping(value = "/exportPage",
             produces = {MediaTypes.APPLICATION_XLSX_VALUE, MediaTypes.APPLICATION_CSV_VALUE, MediaTypes.APPLICATION_PDF_VALUE})
     @Override
-    public ResponseEntity<Resource> exportPage(
+    public ResponseEntity<StreamingResponseBody> exportPage(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
@@ -76,8 +97,24 @@ public class PersonController implements PersonControllerDocs {
 
         String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
 
-        Resource file = service.exportPage(pageable, acceptHeader);
+        StreamingResponseBody file = service.exportPage(pageable, acceptHeader);
+
+        return exportResponse(file, acceptHeader);
+    }
+
+    @GetMapping(value = "/exportAll",
+            produces = {MediaTypes.APPLICATION_XLSX_VALUE, MediaTypes.APPLICATION_CSV_VALUE})
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportAll(HttpServletRequest request) {
 
+        String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
+
+        StreamingResponseBody file = service.exportAll(acceptHeader);
+
+        return exportResponse(file, acceptHeader);
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(StreamingResponseBody file, String acceptHeader) {
         Map<String, String> extensionMap = Map.of(
                 MediaTypes.APPLICATION_XLSX_VALUE, ".xlsx",
                 MediaTypes.APPLICATION_CSV_VALUE, ".csv",
@@ -106,6 +143,20 @@ public class PersonController implements PersonControllerDocs {
         return ResponseEntity.ok(service.findByName(firstName, pageable));
     }
 
+    @GetMapping(value = "/searchPeopleByName/{name}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
+    @Override
+    public ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> searchByName(
+            @PathVariable(name = "name") String name,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "mode", defaultValue = "prefix") String mode
+    ) {
+        var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+        Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+        return ResponseEntity.ok(service.searchByName(name, mode, pageable));
+    }
+
     //@CrossOrigin(origins = "http://localhost:8080")
     @GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_YAML_VALUE})
     @Override
@@ -116,11 +167,11 @@ public class PersonController implements PersonControllerDocs {
     @GetMapping(value = "/export/{id}",
             produces = MediaTypes.APPLICATION_PDF_VALUE)
     @Override
-    public ResponseEntity<Resource> export(@PathVariable("id") Long id, HttpServletRequest request) {
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable("id") Long id, HttpServletRequest request) {
 
         String acceptHeader = request.getHeader(HttpHeaders.ACCEPT);
 
-        Resource file = service.exportPerson(id, acceptHeader);
+        StreamingResponseBody file = service.exportPerson(id, acceptHeader);
 
         return ResponseEntity.ok()
                 .contentType(MediaType.parseMediaType(acceptHeader))
@@ -4,6 +4,7 @@ import br.com.erudio.data.dto.security.AccountCredentialsDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 
 public interface AuthControllerDocs {
@@ -16,10 +17,11 @@ public interface AuthControllerDocs {
                     @ApiResponse(description = "Success", responseCode = "200", content = @Content),
                     @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
                     @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+                    @ApiResponse(description = "Too Many Requests", responseCode = "429", content = @Content),
                     @ApiResponse(description = "Internal Server Error", responseCode = "500", content = @Content)
             }
     )
-    ResponseEntity<?> signin(AccountCredentialsDTO credentials);
+    ResponseEntity<?> signin(AccountCredentialsDTO credentials, HttpServletRequest request);
 
     @Operation(
             summary = "Refresh token for authenticated user and returns a token",
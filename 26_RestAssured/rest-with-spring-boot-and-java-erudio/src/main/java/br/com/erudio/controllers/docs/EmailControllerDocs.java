@@ -1,8 +1,10 @@
 package br.com.erudio.controllers.docs;
 
+import br.com.erudio.data.dto.EmailDeliveryDTO;
 import br.com.erudio.data.dto.request.EmailRequestDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
@@ -10,23 +12,25 @@ import org.springframework.web.multipart.MultipartFile;
 public interface EmailControllerDocs {
 
 
-    @Operation(summary = "Send an e-Mail", description = "Sends an e-Mail by providing details, subject and body!",
+    @Operation(summary = "Send an e-Mail", description = "Queues an e-Mail by providing details, subject and body and returns its delivery id!",
             tags = {"e-Mail"}, responses = {
-            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Accepted", responseCode = "202",
+                    content = @Content(schema = @Schema(implementation = EmailDeliveryDTO.class))),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
     })
-    ResponseEntity<String> sendEmail(EmailRequestDTO emailRequestDTO);
+    ResponseEntity<EmailDeliveryDTO> sendEmail(EmailRequestDTO emailRequestDTO);
 
-    @Operation(summary = "Send an e-Mail with Attachment", description = "Sends an e-mail with Attachment by providing details, subject and body!",
+    @Operation(summary = "Send an e-Mail with Attachment", description = "Queues an e-mail with Attachment by providing details, subject and body and returns its delivery id!",
             tags = {"e-Mail"}, responses = {
-            @ApiResponse(description = "Success", responseCode = "200", content = @Content),
+            @ApiResponse(description = "Accepted", responseCode = "202",
+                    content = @Content(schema = @Schema(implementation = EmailDeliveryDTO.class))),
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
     })
-    ResponseEntity<String> sendEmailWithAttachment(String emailRequestJson, MultipartFile multipartFile);
+    ResponseEntity<EmailDeliveryDTO> sendEmailWithAttachment(String emailRequestJson, MultipartFile multipartFile);
 
 
 }
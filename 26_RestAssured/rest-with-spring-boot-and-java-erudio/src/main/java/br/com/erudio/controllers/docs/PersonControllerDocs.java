@@ -1,5 +1,6 @@
 package br.com.erudio.controllers.docs;
 
+import br.com.erudio.data.dto.ImportSummaryDTO;
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.exporter.MediaTypes;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,15 +9,17 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.Resource;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -53,6 +56,26 @@ public interface PersonControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Scroll through all People", description = "Keyset pagination over People, follow the next link to get the following page",
+            tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                    )
+            }),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+    })
+    ResponseEntity<CollectionModel<EntityModel<PersonDTO>>> scroll(
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "cursor", required = false) String cursor
+    );
+
     @Operation(summary = "Export People", description = "Export a Page of People in XLSX and CSV format",
             tags = {"People"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = {
@@ -63,15 +86,28 @@ public interface PersonControllerDocs {
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
-            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content),
+            @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content)
     })
-    ResponseEntity<Resource> exportPage(
+    ResponseEntity<StreamingResponseBody> exportPage(
             @RequestParam(value = "page", defaultValue = "0") Integer page,
             @RequestParam(value = "size", defaultValue = "12") Integer size,
             @RequestParam(value = "direction", defaultValue = "asc") String direction,
             HttpServletRequest request
     );
 
+    @Operation(summary = "Export all People", description = "Export every Person in XLSX and CSV format, streamed from a database cursor",
+            tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(mediaType = MediaTypes.APPLICATION_XLSX_VALUE),
+                    @Content(mediaType = MediaTypes.APPLICATION_CSV_VALUE),
+            }),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+    })
+    ResponseEntity<StreamingResponseBody> exportAll(HttpServletRequest request);
+
     @Operation(summary = "Massive People Creation", description = "Massive People Creation with upload of XLSX or CSV",
             tags = {"People"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = {
@@ -87,6 +123,21 @@ public interface PersonControllerDocs {
     })
     List<PersonDTO> massCreation(MultipartFile file);
 
+    @Operation(summary = "Streaming People Creation", description = "Streaming People Creation with upload of XLSX or CSV, inserted in batches and answered with a summary",
+            tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            schema = @Schema(implementation = ImportSummaryDTO.class)
+                    )
+            }),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+    })
+    ImportSummaryDTO streamMassCreation(MultipartFile file);
+
     @Operation(summary = "Find People by Firstname", description = "Find People by Firstname",
             tags = {"People"}, responses = {
             @ApiResponse(description = "Success", responseCode = "200", content = {
@@ -108,6 +159,28 @@ public interface PersonControllerDocs {
             @RequestParam(value = "direction", defaultValue = "asc") String direction
     );
 
+    @Operation(summary = "Search People by name",
+            description = "Finds People whose first or last name starts with the given text, or whose first name contains it in 'contains' mode. Returns a slice without a total count",
+            tags = {"People"}, responses = {
+            @ApiResponse(description = "Success", responseCode = "200", content = {
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = PersonDTO.class))
+                    )
+            }),
+            @ApiResponse(description = "No Content", responseCode = "204", content = @Content),
+            @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+            @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+    })
+    ResponseEntity<SlicedModel<EntityModel<PersonDTO>>> searchByName(
+            @PathVariable(name = "name") String name,
+            @RequestParam(value = "page", defaultValue = "0") Integer page,
+            @RequestParam(value = "size", defaultValue = "12") Integer size,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "mode", defaultValue = "prefix") String mode
+    );
+
     @Operation(summary = "Export Person data as PDF", description = "Export a specific Person data  as PDF format by your Id",
             tags = {"People"}, responses = {
             @ApiResponse(
@@ -118,9 +191,10 @@ public interface PersonControllerDocs {
             @ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
             @ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
             @ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
-            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content)
+            @ApiResponse(description = "Internal Sever Error", responseCode = "500", content = @Content),
+            @ApiResponse(description = "Service Unavailable", responseCode = "503", content = @Content)
     })
-    ResponseEntity<Resource> export(@PathVariable("id") Long id, HttpServletRequest request);
+    ResponseEntity<StreamingResponseBody> export(@PathVariable("id") Long id, HttpServletRequest request);
 
 
     @Operation(summary = "Find a Person", description = "Find a specific Person by your id",
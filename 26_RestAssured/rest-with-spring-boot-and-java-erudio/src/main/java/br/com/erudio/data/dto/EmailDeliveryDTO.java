@@ -0,0 +1,48 @@
+package br.com.erudio.data.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.UUID;
+
+public class EmailDeliveryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private UUID deliveryId;
+    private String status;
+
+    public EmailDeliveryDTO() {
+    }
+
+    public EmailDeliveryDTO(UUID deliveryId, String status) {
+        this.deliveryId = deliveryId;
+        this.status = status;
+    }
+
+    public UUID getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(UUID deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EmailDeliveryDTO that)) return false;
+        return Objects.equals(getDeliveryId(), that.getDeliveryId()) && Objects.equals(getStatus(), that.getStatus());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getDeliveryId(), getStatus());
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.erudio.data.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class ImportSummaryDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<Long> failedRowNumbers = new ArrayList<>();
+    private long elapsedMillis;
+
+    public ImportSummaryDTO() {
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public long getImportedRows() {
+        return importedRows;
+    }
+
+    public void setImportedRows(long importedRows) {
+        this.importedRows = importedRows;
+    }
+
+    public long getFailedRows() {
+        return failedRows;
+    }
+
+    public void setFailedRows(long failedRows) {
+        this.failedRows = failedRows;
+    }
+
+    public List<Long> getFailedRowNumbers() {
+        return failedRowNumbers;
+    }
+
+    public void setFailedRowNumbers(List<Long> failedRowNumbers) {
+        this.failedRowNumbers = failedRowNumbers;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ImportSummaryDTO that)) return false;
+        return getTotalRows() == that.getTotalRows() && getImportedRows() == that.getImportedRows() && getFailedRows() == that.getFailedRows() && getElapsedMillis() == that.getElapsedMillis() && Objects.equals(getFailedRowNumbers(), that.getFailedRowNumbers());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getTotalRows(), getImportedRows(), getFailedRows(), getFailedRowNumbers(), getElapsedMillis());
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.erudio.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_ACCEPTABLE)
+public class NotAcceptableException extends RuntimeException {
+
+    public NotAcceptableException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.erudio.exception.handler;
 
 import br.com.erudio.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -55,6 +56,16 @@ public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler
         return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(NotAcceptableException.class)
+    public final ResponseEntity<ExcepetionResponse> handleNotAcceptableExceptions(Exception ex, WebRequest request) {
+        ExcepetionResponse response = new ExcepetionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(response, HttpStatus.NOT_ACCEPTABLE);
+    }
+
     @ExceptionHandler(FileNotFoundException.class)
     public final ResponseEntity<ExcepetionResponse> handleFileNotFoundExceptions(Exception ex, WebRequest request) {
         ExcepetionResponse response = new ExcepetionResponse(
@@ -84,4 +95,28 @@ public class CustomEntityResponseHandler extends ResponseEntityExceptionHandler
         );
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public final ResponseEntity<ExcepetionResponse> handleServiceUnavailableExceptions(ServiceUnavailableException ex, WebRequest request) {
+        ExcepetionResponse response = new ExcepetionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public final ResponseEntity<ExcepetionResponse> handleTooManyRequestsExceptions(TooManyRequestsException ex, WebRequest request) {
+        ExcepetionResponse response = new ExcepetionResponse(
+                new Date(),
+                ex.getMessage(),
+                request.getDescription(false)
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
+    }
 }
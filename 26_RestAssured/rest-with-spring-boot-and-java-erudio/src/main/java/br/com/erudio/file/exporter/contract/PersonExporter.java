@@ -1,14 +1,11 @@
 package br.com.erudio.file.exporter.contract;
 
 import br.com.erudio.data.dto.PersonDTO;
-import org.springframework.core.io.Resource;
 
-import java.util.List;
+import java.io.OutputStream;
 
 public interface PersonExporter {
 
-    Resource exportPeople(List<PersonDTO> people) throws Exception;
-
-    Resource exportPerson(PersonDTO person) throws Exception;
+    void exportPeople(Iterable<PersonDTO> people, OutputStream outputStream) throws Exception;
 
 }
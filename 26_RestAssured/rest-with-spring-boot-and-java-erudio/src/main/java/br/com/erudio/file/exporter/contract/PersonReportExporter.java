@@ -0,0 +1,11 @@
+package br.com.erudio.file.exporter.contract;
+
+import br.com.erudio.data.dto.PersonDTO;
+
+import java.io.OutputStream;
+
+public interface PersonReportExporter {
+
+    void exportPerson(PersonDTO person, OutputStream outputStream) throws Exception;
+
+}
@@ -1,8 +1,10 @@
 package br.com.erudio.file.exporter.factory;
 
 import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.exception.NotAcceptableException;
 import br.com.erudio.file.exporter.MediaTypes;
 import br.com.erudio.file.exporter.contract.PersonExporter;
+import br.com.erudio.file.exporter.contract.PersonReportExporter;
 import br.com.erudio.file.exporter.impl.CsvExporter;
 import br.com.erudio.file.exporter.impl.PdfExporter;
 import br.com.erudio.file.exporter.impl.XlsxExporter;
@@ -32,4 +34,12 @@ public class FileExporterFactory {
         }
     }
 
+    // A single person only exports as a PDF report
+    public PersonReportExporter getReportExporter(String acceptHeader) {
+        if (MediaTypes.APPLICATION_PDF_VALUE.equalsIgnoreCase(acceptHeader)) {
+            return context.getBean(PdfExporter.class);
+        }
+        throw new NotAcceptableException("Person export is only available as PDF!");
+    }
+
 }
@@ -2,83 +2,72 @@ package br.com.erudio.file.exporter.impl;
 
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.exporter.contract.PersonExporter;
+import br.com.erudio.file.exporter.contract.PersonReportExporter;
+import br.com.erudio.file.exporter.report.ReportRegistry;
 import br.com.erudio.services.QRCodeService;
 import net.sf.jasperreports.engine.*;
 import net.sf.jasperreports.engine.data.JRBeanCollectionDataSource;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 @Component
-public class PdfExporter implements PersonExporter {
+public class PdfExporter implements PersonExporter, PersonReportExporter {
 
 
     @Autowired
     private QRCodeService service;
 
-    @Override
-    public Resource exportPeople(List<PersonDTO> people) throws Exception {
-        InputStream inputStream = getClass().getResourceAsStream("/templates/people.jrxml");
-        if (inputStream == null) {
-            throw new RuntimeException("Template file not found: /templates/people.jrxml");
-        }
+    @Autowired
+    private ReportRegistry reports;
 
-        JasperReport jasperReport = JasperCompileManager.compileReport(inputStream);
+    @Override
+    public void exportPeople(Iterable<PersonDTO> people, OutputStream outputStream) throws Exception {
+        JasperReport jasperReport = reports.get(ReportRegistry.PEOPLE);
 
-        JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(people);
+        JRBeanCollectionDataSource dataSource = new JRBeanCollectionDataSource(toCollection(people));
         Map<String, Object> parameters = new HashMap<>();
         //parameters.put("title", "People Report");
         JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
 
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
-            return new ByteArrayResource(outputStream.toByteArray());
-        }
+        JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
     }
 
     @Override
-    public Resource exportPerson(PersonDTO person) throws Exception {
-        InputStream mainTemplateStream = getClass().getResourceAsStream("/templates/person.jrxml");
-        if (mainTemplateStream == null) {
-            throw new RuntimeException("Template file not found: /templates/person.jrxml");
-        }
-        InputStream subReportStream = getClass().getResourceAsStream("/templates/books.jrxml");
-        if (subReportStream == null) {
-            throw new RuntimeException("Template file not found: /templates/books.jrxml");
-        }
-
-        JasperReport mainReport = JasperCompileManager.compileReport(mainTemplateStream);
-        JasperReport subReport = JasperCompileManager.compileReport(subReportStream);
+    public void exportPerson(PersonDTO person, OutputStream outputStream) throws Exception {
+        JasperReport mainReport = reports.get(ReportRegistry.PERSON);
+        JasperReport subReport = reports.get(ReportRegistry.BOOKS);
 
         InputStream qrCodeStream = service.generateQRCode(person.getProfileUrl(), 200, 200);
 
 
         JRBeanCollectionDataSource subReportDataSource = new JRBeanCollectionDataSource(person.getBooks());
 
-        String path = getClass().getResource("/templates/books.jasper").getPath();
-
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("SUB_REPORT_DATA_SOURCE", subReportDataSource);
         parameters.put("BOOK_SUB_REPORT", subReport);
-        parameters.put("SUB_REPORT_DIR", path);
         parameters.put("QR_CODEIMAGE", qrCodeStream);
 
         JRBeanCollectionDataSource mainDataSource = new JRBeanCollectionDataSource(Collections.singletonList(person));
 
         JasperPrint jasperPrint = JasperFillManager.fillReport(mainReport, parameters, mainDataSource);
 
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-            JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
-            return new ByteArrayResource(outputStream.toByteArray());
-        }
+        JasperExportManager.exportReportToPdfStream(jasperPrint, outputStream);
+    }
+
+    private Collection<PersonDTO> toCollection(Iterable<PersonDTO> people) {
+        if (people instanceof Collection<PersonDTO> collection) return collection;
+        List<PersonDTO> list = new ArrayList<>();
+        people.forEach(list::add);
+        return list;
     }
 
 }
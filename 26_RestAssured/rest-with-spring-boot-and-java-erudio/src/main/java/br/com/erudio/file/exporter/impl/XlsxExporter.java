@@ -3,55 +3,61 @@ package br.com.erudio.file.exporter.impl;
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.exporter.contract.PersonExporter;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.core.io.ByteArrayResource;
-import org.springframework.core.io.Resource;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Component;
 
-import java.io.ByteArrayOutputStream;
-import java.util.List;
+import java.io.OutputStream;
 
 @Component
 public class XlsxExporter implements PersonExporter {
+
+    private static final String[] HEADERS = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
+
+    // Rows kept in memory before SXSSF flushes them to its temp file
+    private static final int ROW_ACCESS_WINDOW = 100;
+    private static final int MAX_COLUMN_CHARS = 255;
+
     @Override
-    public Resource exportPeople(List<PersonDTO> people) throws Exception {
-        try (Workbook workbook = new XSSFWorkbook()) {
+    public void exportPeople(Iterable<PersonDTO> people, OutputStream outputStream) throws Exception {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW)) {
+            workbook.setCompressTempFiles(true);
             Sheet sheet = workbook.createSheet("People");
+            int[] columnChars = new int[HEADERS.length];
 
+            CellStyle headerStyle = createHeaderCellStyle(workbook);
             Row headerRow = sheet.createRow(0);
-            String[] headers = {"ID", "First Name", "Last Name", "Address", "Gender", "Enabled"};
-            for (int i = 0; i < headers.length; i++) {
+            for (int i = 0; i < HEADERS.length; i++) {
                 Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(createHeaderCellStyle(workbook));
+                cell.setCellValue(HEADERS[i]);
+                cell.setCellStyle(headerStyle);
+                columnChars[i] = HEADERS[i].length();
             }
 
             int rowIndex = 1;
             for (PersonDTO person : people) {
                 Row row = sheet.createRow(rowIndex++);
                 row.createCell(0).setCellValue(person.getId());
-                row.createCell(1).setCellValue(person.getFirstName());
-                row.createCell(2).setCellValue(person.getLastName());
-                row.createCell(3).setCellValue(person.getAddress());
-                row.createCell(4).setCellValue(person.getGender());
-                row.createCell(5).setCellValue(
-                        person.getEnabled() != null && person.getEnabled() ? "Yes" : "No");
+                setCellValue(row, 1, person.getFirstName(), columnChars);
+                setCellValue(row, 2, person.getLastName(), columnChars);
+                setCellValue(row, 3, person.getAddress(), columnChars);
+                setCellValue(row, 4, person.getGender(), columnChars);
+                setCellValue(row, 5, person.getEnabled() != null && person.getEnabled() ? "Yes" : "No", columnChars);
+                if (person.getId() != null) {
+                    columnChars[0] = Math.max(columnChars[0], String.valueOf(person.getId()).length());
+                }
             }
 
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
+            for (int i = 0; i < HEADERS.length; i++) {
+                sheet.setColumnWidth(i, (Math.min(columnChars[i], MAX_COLUMN_CHARS - 2) + 2) * 256);
             }
 
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             workbook.write(outputStream);
-
-            return new ByteArrayResource(outputStream.toByteArray());
         }
     }
 
-    @Override
-    public Resource exportPerson(PersonDTO person) throws Exception {
-        return null;
+    private static void setCellValue(Row row, int column, String value, int[] columnChars) {
+        row.createCell(column).setCellValue(value);
+        if (value != null) columnChars[column] = Math.max(columnChars[column], value.length());
     }
 
     private CellStyle createHeaderCellStyle(Workbook workbook) {
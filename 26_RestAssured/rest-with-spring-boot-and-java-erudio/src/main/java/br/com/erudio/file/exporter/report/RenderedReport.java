@@ -0,0 +1,68 @@
+package br.com.erudio.file.exporter.report;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Output of one render, kept in memory up to a threshold and spilled to a temp file past it
+public final class RenderedReport extends OutputStream {
+
+    private final int memoryThreshold;
+    private final ByteArrayOutputStream memory = new ByteArrayOutputStream();
+    private Path file;
+    private OutputStream fileStream;
+
+    RenderedReport(int memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        target(1).write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        target(length).write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (fileStream != null) fileStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fileStream != null) fileStream.close();
+    }
+
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        if (file == null) {
+            memory.writeTo(outputStream);
+        } else {
+            Files.copy(file, outputStream);
+        }
+    }
+
+    public void discard() throws IOException {
+        close();
+        if (file != null) Files.deleteIfExists(file);
+    }
+
+    private OutputStream target(int length) throws IOException {
+        if (file == null && memory.size() + length > memoryThreshold) {
+            file = Files.createTempFile("report-", ".tmp");
+            fileStream = new BufferedOutputStream(Files.newOutputStream(file));
+            memory.writeTo(fileStream);
+            memory.reset();
+        }
+        return file == null ? memory : fileStream;
+    }
+}
@@ -0,0 +1,99 @@
+package br.com.erudio.file.exporter.report;
+
+import jakarta.annotation.PostConstruct;
+import net.sf.jasperreports.engine.JRException;
+import net.sf.jasperreports.engine.JasperCompileManager;
+import net.sf.jasperreports.engine.JasperReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ReportRegistry {
+
+    public static final String PEOPLE = "people";
+    public static final String PERSON = "person";
+    public static final String BOOKS = "books";
+
+    private static final List<String> TEMPLATES = List.of(PEOPLE, PERSON, BOOKS);
+
+    private Logger logger = LoggerFactory.getLogger(ReportRegistry.class);
+
+    @Autowired
+    private ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    @Value("${file.export.reports.location:classpath:/templates/}")
+    private String location = "classpath:/templates/";
+
+    @Value("${file.export.reports.hot-reload:false}")
+    private boolean hotReload;
+
+    private final Map<String, CompiledReport> reports = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void loadAll() {
+        for (String name : TEMPLATES) {
+            try {
+                get(name);
+            } catch (JRException e) {
+                // Left out of the registry, the next request retries and reports the error
+                logger.error("Could not compile report template {}", name, e);
+            }
+        }
+    }
+
+    public JasperReport get(String name) throws JRException {
+        CompiledReport compiled = reports.get(name);
+        if (compiled != null && (!hotReload || compiled.lastModified() == lastModified(template(name)))) {
+            return compiled.report();
+        }
+        synchronized (reports) {
+            compiled = reports.get(name);
+            Resource template = template(name);
+            long lastModified = lastModified(template);
+            if (compiled == null || (hotReload && compiled.lastModified() != lastModified)) {
+                compiled = new CompiledReport(compile(name, template), lastModified);
+                reports.put(name, compiled);
+            }
+            return compiled.report();
+        }
+    }
+
+    private JasperReport compile(String name, Resource template) throws JRException {
+        if (!template.exists()) {
+            throw new JRException("Template file not found: " + template.getDescription());
+        }
+        logger.info("Compiling report template {}", name);
+        try (InputStream inputStream = template.getInputStream()) {
+            return JasperCompileManager.compileReport(inputStream);
+        } catch (IOException e) {
+            throw new JRException("Could not read template file: " + template.getDescription(), e);
+        }
+    }
+
+    private Resource template(String name) {
+        return resourceLoader.getResource(location + name + ".jrxml");
+    }
+
+    private long lastModified(Resource template) {
+        try {
+            return template.lastModified();
+        } catch (IOException e) {
+            return 0L;
+        }
+    }
+
+    private record CompiledReport(JasperReport report, long lastModified) {
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.erudio.file.exporter.report;
+
+import br.com.erudio.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class ReportRenderPool {
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final int memoryThresholdBytes;
+
+    private final Timer queueWait;
+    private final Timer renderTime;
+    private final Counter rejected;
+
+    public ReportRenderPool(
+            @Value("${file.export.reports.render.workers:2}") int workers,
+            @Value("${file.export.reports.render.queue-capacity:16}") int queueCapacity,
+            @Value("${file.export.reports.render.retry-after-seconds:5}") long retryAfterSeconds,
+            @Value("${file.export.reports.render.memory-threshold-kb:1024}") int memoryThresholdKb,
+            MeterRegistry meterRegistry) {
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("report-render-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.memoryThresholdBytes = memoryThresholdKb * 1024;
+
+        this.queueWait = Timer.builder("reports.render.queue.wait")
+                .description("Time a report waits for a render worker")
+                .register(meterRegistry);
+        this.renderTime = Timer.builder("reports.render.time")
+                .description("Time spent filling and exporting a report")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("reports.render.rejected")
+                .description("Reports refused because the render queue was full")
+                .register(meterRegistry);
+        Gauge.builder("reports.render.queue.size", executor, pool -> pool.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("reports.render.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(RenderTask<T> task) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                long startedAt = System.nanoTime();
+                try {
+                    result.complete(task.render());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    renderTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many reports are being rendered, try again later!", retryAfterSeconds);
+        }
+        return result;
+    }
+
+    // Workers only fill and export the report, the response is written later by the streaming thread
+    // so a slow client never holds a render slot
+    public CompletableFuture<RenderedReport> render(StreamTask task) {
+        return submit(() -> {
+            RenderedReport report = new RenderedReport(memoryThresholdBytes);
+            try {
+                task.render(report);
+                report.close();
+                return report;
+            } catch (Exception e) {
+                report.discard();
+                throw e;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @FunctionalInterface
+    public interface RenderTask<T> {
+        T render() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface StreamTask {
+        void render(OutputStream outputStream) throws Exception;
+    }
+}
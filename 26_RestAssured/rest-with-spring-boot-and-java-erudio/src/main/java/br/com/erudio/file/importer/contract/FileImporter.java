@@ -3,10 +3,27 @@ package br.com.erudio.file.importer.contract;
 import br.com.erudio.data.dto.PersonDTO;
 
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface FileImporter {
 
-    List<PersonDTO> importFile(InputStream inputStream) throws Exception;
+    default List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+        List<PersonDTO> people = new ArrayList<>();
+        importFile(inputStream, new PersonRowHandler() {
+            @Override
+            public void onRow(long rowNumber, PersonDTO person) {
+                people.add(person);
+            }
+
+            @Override
+            public void onInvalidRow(long rowNumber, Exception cause) {
+                throw new IllegalArgumentException("Invalid row " + rowNumber, cause);
+            }
+        });
+        return people;
+    }
+
+    void importFile(InputStream inputStream, PersonRowHandler handler) throws Exception;
 
 }
@@ -0,0 +1,12 @@
+package br.com.erudio.file.importer.contract;
+
+import br.com.erudio.data.dto.PersonDTO;
+
+@FunctionalInterface
+public interface PersonRowHandler {
+
+    void onRow(long rowNumber, PersonDTO person);
+
+    default void onInvalidRow(long rowNumber, Exception cause) {
+    }
+}
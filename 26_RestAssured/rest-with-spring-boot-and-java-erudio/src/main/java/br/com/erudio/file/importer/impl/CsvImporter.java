@@ -2,19 +2,20 @@ package br.com.erudio.file.importer.impl;
 
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.importer.contract.FileImporter;
+import br.com.erudio.file.importer.contract.PersonRowHandler;
 import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.springframework.stereotype.Component;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 @Component
 public class CsvImporter implements FileImporter {
     @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+    public void importFile(InputStream inputStream, PersonRowHandler handler) throws Exception {
 
         CSVFormat format = CSVFormat.Builder.create()
                 .setHeader()
@@ -23,25 +24,27 @@ public class CsvImporter implements FileImporter {
                 .setTrim(true)
                 .build();
 
-        Iterable<CSVRecord> records = format.parse(new InputStreamReader(inputStream));
-
-        return parseRecordsToPersonDTOs(records);
-    }
-
-    private List<PersonDTO> parseRecordsToPersonDTOs(Iterable<CSVRecord> records) {
-
-        List<PersonDTO> people = new ArrayList<>();
-
-        for (CSVRecord record : records) {
-            PersonDTO person = new PersonDTO();
-            person.setFirstName(record.get("first_name"));
-            person.setLastName(record.get("last_name"));
-            person.setAddress(record.get("address"));
-            person.setGender(record.get("gender"));
-            person.setEnabled(true);
-            people.add(person);
+        try (CSVParser records = format.parse(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            for (CSVRecord record : records) {
+                PersonDTO person;
+                try {
+                    person = parseRecordToPersonDTO(record);
+                } catch (IllegalArgumentException e) {
+                    handler.onInvalidRow(record.getRecordNumber(), e);
+                    continue;
+                }
+                handler.onRow(record.getRecordNumber(), person);
+            }
         }
+    }
 
-        return people;
+    private PersonDTO parseRecordToPersonDTO(CSVRecord record) {
+        PersonDTO person = new PersonDTO();
+        person.setFirstName(record.get("first_name"));
+        person.setLastName(record.get("last_name"));
+        person.setAddress(record.get("address"));
+        person.setGender(record.get("gender"));
+        person.setEnabled(true);
+        return person;
     }
 }
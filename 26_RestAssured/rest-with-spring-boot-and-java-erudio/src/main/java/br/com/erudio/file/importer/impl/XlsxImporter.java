@@ -2,57 +2,107 @@ package br.com.erudio.file.importer.impl;
 
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.file.importer.contract.FileImporter;
-import org.apache.poi.ss.usermodel.CellType;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import br.com.erudio.file.importer.contract.PersonRowHandler;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 
 import java.io.InputStream;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
 
 @Component
 public class XlsxImporter implements FileImporter {
+
+    private static final int COLUMNS = 4;
+
     @Override
-    public List<PersonDTO> importFile(InputStream inputStream) throws Exception {
+    public void importFile(InputStream inputStream, PersonRowHandler handler) throws Exception {
 
-        try (XSSFWorkbook workbook = new XSSFWorkbook(inputStream)) {
-            XSSFSheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
+        // OPCPackage.open(InputStream) inflates the whole zip in memory, a file lets POI read entries on demand
+        Path tempFile = Files.createTempFile("people-import", ".xlsx");
+        try {
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
 
-            if (rowIterator.hasNext()) rowIterator.next();
+            try (OPCPackage xlsxPackage = OPCPackage.open(tempFile.toFile(), PackageAccess.READ)) {
+                XSSFReader reader = new XSSFReader(xlsxPackage);
+                ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(xlsxPackage, false);
 
-            return parseRowsToPersonDTOList(rowIterator);
-        }
+                Iterator<InputStream> sheets = reader.getSheetsData();
+                if (!sheets.hasNext()) return;
 
+                try (InputStream sheet = sheets.next()) {
+                    XMLReader parser = XMLHelper.newXMLReader();
+                    parser.setContentHandler(new XSSFSheetXMLHandler(
+                            reader.getStylesTable(), strings, new PersonSheetHandler(handler), new DataFormatter(), false));
+                    parser.parse(new InputSource(sheet));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
     }
 
-    private List<PersonDTO> parseRowsToPersonDTOList(Iterator<Row> rowIterator) {
+    private static class PersonSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final PersonRowHandler handler;
+        private final String[] cells = new String[COLUMNS];
+        private boolean headerSkipped;
 
-        List<PersonDTO> people = new ArrayList<>();
+        PersonSheetHandler(PersonRowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, null);
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = new CellReference(cellReference).getCol();
+            if (column < COLUMNS) cells[column] = formattedValue;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            if (!headerSkipped) {
+                headerSkipped = true;
+                return;
+            }
+            if (!isRowValid(cells)) return;
 
-        while (rowIterator.hasNext()) {
-            Row row = rowIterator.next();
-            if (isRowValid(row)) {
-                people.add(parseRowsToPersonDTO(row));
+            if (cells[1] == null || cells[2] == null || cells[3] == null) {
+                handler.onInvalidRow(rowNum, new IllegalArgumentException("Missing cells in row " + rowNum));
+                return;
             }
+            handler.onRow(rowNum, parseRowToPersonDTO(cells));
         }
-        return people;
     }
 
-    private PersonDTO parseRowsToPersonDTO(Row row) {
+    private static PersonDTO parseRowToPersonDTO(String[] cells) {
         PersonDTO person = new PersonDTO();
-        person.setFirstName(row.getCell(0).getStringCellValue());
-        person.setLastName(row.getCell(1).getStringCellValue());
-        person.setAddress(row.getCell(2).getStringCellValue());
-        person.setGender(row.getCell(3).getStringCellValue());
+        person.setFirstName(cells[0]);
+        person.setLastName(cells[1]);
+        person.setAddress(cells[2]);
+        person.setGender(cells[3]);
         person.setEnabled(true);
         return person;
     }
 
-    private static boolean isRowValid(Row row) {
-        return row.getCell(0) != null && row.getCell(0).getCellType() != CellType.BLANK;
+    private static boolean isRowValid(String[] cells) {
+        return cells[0] != null && !cells[0].isEmpty();
     }
 }
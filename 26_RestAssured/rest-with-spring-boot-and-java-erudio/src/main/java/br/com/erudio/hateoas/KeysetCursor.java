@@ -0,0 +1,29 @@
+package br.com.erudio.hateoas;
+
+import br.com.erudio.exception.BadRequestException;
+import org.springframework.data.domain.Sort.Direction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Continuation token for keyset pagination: the sort key and id of the last row sent, and the direction
+public record KeysetCursor(Direction direction, String key, Long id) {
+
+    public String encode() {
+        String raw = (direction.isDescending() ? "d" : "a") + ":" + id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3 || !("a".equals(parts[0]) || "d".equals(parts[0]))) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new KeysetCursor("d".equals(parts[0]) ? Direction.DESC : Direction.ASC, parts[2], Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor!");
+        }
+    }
+}
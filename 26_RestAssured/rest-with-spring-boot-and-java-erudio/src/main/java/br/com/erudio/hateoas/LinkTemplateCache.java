@@ -0,0 +1,60 @@
+package br.com.erudio.hateoas;
+
+import org.springframework.hateoas.Link;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+
+public class LinkTemplateCache {
+
+    static final Long ID_PLACEHOLDER = Long.MIN_VALUE;
+    private static final String PLACEHOLDER = String.valueOf(ID_PLACEHOLDER);
+
+    // The base URL comes from the Host/Forwarded headers, so the cache is bounded
+    private static final int MAX_BASE_URLS = 32;
+
+    private final Class<?> controller;
+    private final Function<Long, List<Link>> linkFactory;
+    private final Map<String, List<Link>> templates = new ConcurrentHashMap<>();
+
+    public LinkTemplateCache(Class<?> controller, Function<Long, List<Link>> linkFactory) {
+        this.controller = controller;
+        this.linkFactory = linkFactory;
+    }
+
+    public List<Link> expand(Long id) {
+        if (id == null) return linkFactory.apply(null);
+
+        String baseUrl = linkTo(controller).toUri().toString();
+        List<Link> cached = templates.get(baseUrl);
+        if (cached == null) {
+            cached = linkFactory.apply(ID_PLACEHOLDER);
+            if (templates.size() < MAX_BASE_URLS) templates.putIfAbsent(baseUrl, cached);
+        }
+
+        String value = id.toString();
+        List<Link> links = new ArrayList<>(cached.size());
+        for (Link link : cached) {
+            String href = link.getHref();
+            links.add(href.contains(PLACEHOLDER) ? withHref(link, href.replace(PLACEHOLDER, value)) : link);
+        }
+        return links;
+    }
+
+    // Rebuilt from scratch so the link does not keep the placeholder template and affordances
+    private static Link withHref(Link template, String href) {
+        return Link.of(href, template.getRel())
+                .withHreflang(template.getHreflang())
+                .withMedia(template.getMedia())
+                .withTitle(template.getTitle())
+                .withType(template.getType())
+                .withDeprecation(template.getDeprecation())
+                .withProfile(template.getProfile())
+                .withName(template.getName());
+    }
+}
@@ -0,0 +1,258 @@
+package br.com.erudio.mail;
+
+import br.com.erudio.config.EmailConfig;
+import br.com.erudio.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class EmailDeliveryQueue {
+
+    private final Logger logger = LoggerFactory.getLogger(EmailDeliveryQueue.class);
+
+    private final EmailSender emailSender;
+    private final EmailConfig emailConfig;
+
+    private final BlockingQueue<Delivery> queue;
+    private final int workers;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long retryAfterSeconds;
+
+    private final ExecutorService workerPool;
+    private final ScheduledExecutorService retryScheduler;
+    private volatile boolean running;
+
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter retried;
+    private final Counter rejected;
+    private final DistributionSummary batchSizes;
+    private final Timer sendTime;
+
+    public EmailDeliveryQueue(
+            EmailSender emailSender,
+            EmailConfig emailConfig,
+            @Value("${email.delivery.workers:2}") int workers,
+            @Value("${email.delivery.queue-capacity:1000}") int queueCapacity,
+            @Value("${email.delivery.batch-size:20}") int batchSize,
+            @Value("${email.delivery.max-attempts:5}") int maxAttempts,
+            @Value("${email.delivery.initial-backoff-millis:1000}") long initialBackoffMillis,
+            @Value("${email.delivery.max-backoff-millis:60000}") long maxBackoffMillis,
+            @Value("${email.delivery.retry-after-seconds:10}") long retryAfterSeconds,
+            MeterRegistry meterRegistry) {
+        this.emailSender = emailSender;
+        this.emailConfig = emailConfig;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.workerPool = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("mail-delivery-"));
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-retry-"));
+
+        this.sent = Counter.builder("mail.delivery.sent")
+                .description("E-mails accepted by the SMTP server")
+                .register(meterRegistry);
+        this.failed = Counter.builder("mail.delivery.failed")
+                .description("E-mails dropped after their last attempt")
+                .register(meterRegistry);
+        this.retried = Counter.builder("mail.delivery.retried")
+                .description("E-mail attempts scheduled again after a failure")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mail.delivery.rejected")
+                .description("E-mails refused because the delivery queue was full")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("mail.delivery.batch.size")
+                .description("E-mails sent over one SMTP connection")
+                .register(meterRegistry);
+        this.sendTime = Timer.builder("mail.delivery.send.time")
+                .description("Time spent sending one batch")
+                .register(meterRegistry);
+        Gauge.builder("mail.delivery.queue.size", queue, BlockingQueue::size)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::work);
+        }
+    }
+
+    public UUID enqueue(EmailMessage message) {
+        UUID deliveryId = UUID.randomUUID();
+        enqueue(deliveryId, message, DeliveryListener.NONE);
+        return deliveryId;
+    }
+
+    public void enqueue(UUID deliveryId, EmailMessage message, DeliveryListener listener) {
+        Delivery delivery = new Delivery(deliveryId, message, 1, listener);
+        if (!queue.offer(delivery)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many e-mails are waiting to be sent, try again later!", retryAfterSeconds);
+        }
+    }
+
+    public int remainingCapacity() {
+        return queue.remainingCapacity();
+    }
+
+    private void work() {
+        List<Delivery> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Delivery first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Unexpected failure while delivering e-mails", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<Delivery> batch) {
+        List<EmailMessage> messages = batch.stream().map(Delivery::message).toList();
+        batchSizes.record(batch.size());
+        Map<EmailMessage, MailException> failures = sendTime.record(() -> emailSender.send(messages, emailConfig));
+
+        for (Delivery delivery : batch) {
+            MailException failure = failures.get(delivery.message());
+            if (failure == null) {
+                sent.increment();
+                notify(delivery, null);
+            } else if (isRetryable(failure) && delivery.attempt() < maxAttempts) {
+                retried.increment();
+                if (handOver(delivery, failure)) continue;
+                long delay = backoff(delivery.attempt());
+                logger.warn("E-mail {} failed on attempt {}, retrying in {} ms: {}",
+                        delivery.id(), delivery.attempt(), delay, failure.getMessage());
+                scheduleRetry(delivery.next(), delay);
+            } else {
+                logger.error("E-mail {} to {} was dropped after {} attempt(s)",
+                        delivery.id(), delivery.message().getTo(), delivery.attempt(), failure);
+                failed.increment();
+                notify(delivery, failure);
+            }
+        }
+    }
+
+    private void notify(Delivery delivery, MailException failure) {
+        try {
+            if (failure == null) delivery.listener().sent(delivery.id());
+            else delivery.listener().failed(delivery.id(), failure);
+        } catch (RuntimeException e) {
+            logger.error("Could not record the outcome of e-mail {}", delivery.id(), e);
+        }
+    }
+
+    private boolean handOver(Delivery delivery, MailException failure) {
+        try {
+            return delivery.listener().retryLater(delivery.id(), failure);
+        } catch (RuntimeException e) {
+            logger.error("Could not hand e-mail {} back for a later retry", delivery.id(), e);
+            return true;
+        }
+    }
+
+    private void scheduleRetry(Delivery delivery, long delay) {
+        if (!running) return;
+        retryScheduler.schedule(() -> {
+            // A full queue only postpones the retry, it does not spend an attempt
+            if (!queue.offer(delivery)) scheduleRetry(delivery, delay);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    // Exponential backoff with jitter so a burst of failures does not hit the server again in lockstep
+    private long backoff(int attempt) {
+        long delay = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private static boolean isRetryable(MailException failure) {
+        return !(failure instanceof MailPreparationException || failure instanceof MailParseException);
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        retryScheduler.shutdownNow();
+        workerPool.shutdown();
+        try {
+            workerPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) logger.warn("{} e-mail(s) were still queued at shutdown", queue.size());
+    }
+
+    private record Delivery(UUID id, EmailMessage message, int attempt, DeliveryListener listener) {
+
+        Delivery next() {
+            return new Delivery(id, message, attempt + 1, listener);
+        }
+    }
+
+    public interface DeliveryListener {
+
+        DeliveryListener NONE = new DeliveryListener() {
+            @Override
+            public void sent(UUID deliveryId) {
+            }
+
+            @Override
+            public void failed(UUID deliveryId, Exception cause) {
+            }
+        };
+
+        void sent(UUID deliveryId);
+
+        void failed(UUID deliveryId, Exception cause);
+
+        // Returning true takes the retry over from the queue, which otherwise retries in memory
+        default boolean retryLater(UUID deliveryId, Exception cause) {
+            return false;
+        }
+    }
+}
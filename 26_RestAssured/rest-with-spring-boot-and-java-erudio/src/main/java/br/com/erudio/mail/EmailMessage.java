@@ -0,0 +1,124 @@
+package br.com.erudio.mail;
+
+import br.com.erudio.exception.BadRequestException;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import org.springframework.core.io.InputStreamSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringTokenizer;
+
+public final class EmailMessage {
+
+    private final String from;
+    private final String to;
+    private final List<InternetAddress> recipients;
+    private final String subject;
+    private final String body;
+    private final String attachmentName;
+    private final InputStreamSource attachment;
+
+    private EmailMessage(Builder builder) {
+        this.from = builder.from;
+        this.to = builder.to;
+        this.recipients = List.copyOf(builder.recipients);
+        this.subject = builder.subject;
+        this.body = builder.body;
+        this.attachmentName = builder.attachmentName;
+        this.attachment = builder.attachment;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public List<InternetAddress> getRecipients() {
+        return recipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public String getAttachmentName() {
+        return attachmentName;
+    }
+
+    public InputStreamSource getAttachment() {
+        return attachment;
+    }
+
+    public static final class Builder {
+
+        private String from;
+        private String to;
+        private List<InternetAddress> recipients = List.of();
+        private String subject;
+        private String body;
+        private String attachmentName;
+        private InputStreamSource attachment;
+
+        private Builder() {
+        }
+
+        public Builder from(String from) {
+            this.from = from;
+            return this;
+        }
+
+        public Builder to(String to) {
+            this.to = to;
+            this.recipients = getRecipients(to);
+            return this;
+        }
+
+        public Builder withSubject(String subject) {
+            this.subject = subject;
+            return this;
+        }
+
+        public Builder withMessage(String body) {
+            this.body = body;
+            return this;
+        }
+
+        // The source is opened while the MIME body is written, and again on every retry
+        public Builder attach(String name, InputStreamSource source) {
+            this.attachmentName = name;
+            this.attachment = source;
+            return this;
+        }
+
+        public EmailMessage build() {
+            if (recipients.isEmpty()) throw new BadRequestException("An e-mail needs at least one recipient!");
+            return new EmailMessage(this);
+        }
+
+        private static List<InternetAddress> getRecipients(String to) {
+            String toWithoutSpaces = to == null ? "" : to.replaceAll("\\s", "");
+            StringTokenizer tok = new StringTokenizer(toWithoutSpaces, ";");
+            List<InternetAddress> recipientsList = new ArrayList<>();
+            while (tok.hasMoreElements()) {
+                try {
+                    recipientsList.add(new InternetAddress(tok.nextElement().toString()));
+                } catch (AddressException e) {
+                    throw new BadRequestException("Invalid e-mail address: " + e.getRef());
+                }
+            }
+            return recipientsList;
+        }
+    }
+}
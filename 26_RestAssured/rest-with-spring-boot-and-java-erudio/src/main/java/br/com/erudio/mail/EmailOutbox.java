@@ -0,0 +1,187 @@
+package br.com.erudio.mail;
+
+import br.com.erudio.config.EmailConfig;
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exception.FileStorageException;
+import br.com.erudio.model.EmailOutboxMessage;
+import br.com.erudio.model.EmailOutboxMessage.Status;
+import br.com.erudio.repository.EmailOutboxRepository;
+import jakarta.transaction.Transactional;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+public class EmailOutbox {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutbox.class);
+
+    private static final List<Status> OPEN = List.of(Status.PENDING, Status.SENDING);
+
+    private final EmailOutboxRepository repository;
+    private final EmailConfig emailConfig;
+    private final Path attachmentLocation;
+    private final Duration lease;
+    private final int maxClaims;
+    private final Duration retryBackoff;
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public EmailOutbox(
+            EmailOutboxRepository repository,
+            EmailConfig emailConfig,
+            FileStorageConfig fileStorageConfig,
+            @Value("${email.outbox.lease-seconds:600}") long leaseSeconds,
+            @Value("${email.outbox.max-claims:5}") int maxClaims,
+            @Value("${email.outbox.retry-backoff-seconds:30}") long retryBackoffSeconds) {
+        this.repository = repository;
+        this.emailConfig = emailConfig;
+        // Attachments live next to the uploads so any node sharing that directory can send them
+        this.attachmentLocation = Paths.get(fileStorageConfig.getUploadDir())
+                .toAbsolutePath().normalize().resolve("email-outbox");
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxClaims = maxClaims;
+        this.retryBackoff = Duration.ofSeconds(retryBackoffSeconds);
+    }
+
+    @Transactional
+    public UUID add(EmailMessage message, MultipartFile attachment) {
+        UUID deliveryId = UUID.randomUUID();
+        Instant now = Instant.now();
+
+        var entity = new EmailOutboxMessage();
+        entity.setDeliveryId(deliveryId.toString());
+        entity.setFrom(message.getFrom() != null ? message.getFrom() : defaultFrom());
+        entity.setTo(message.getTo());
+        entity.setSubject(message.getSubject());
+        entity.setBody(message.getBody());
+        entity.setStatus(Status.PENDING);
+        entity.setAttempts(0);
+        entity.setNextAttemptAt(now);
+        entity.setCreatedAt(now);
+        try {
+            if (attachment != null) entity.setAttachmentPath(storeAttachment(deliveryId, attachment).toString());
+            repository.save(entity);
+        } catch (RuntimeException e) {
+            deleteAttachments(deliveryId);
+            throw e;
+        }
+        return deliveryId;
+    }
+
+    // Rows stay SENDING until the lease runs out, so a node that dies mid-send hands them over to the others
+    @Transactional
+    public List<EmailOutboxMessage> claim(int limit) {
+        Instant now = Instant.now();
+        List<EmailOutboxMessage> claimed = new ArrayList<>(limit);
+        for (EmailOutboxMessage entity : repository.findClaimable(OPEN, now, PageRequest.of(0, limit))) {
+            if (entity.getAttempts() >= maxClaims) {
+                logger.error("E-mail {} was abandoned after {} claims", entity.getDeliveryId(), entity.getAttempts());
+                entity.setStatus(Status.FAILED);
+                entity.setLastError("Abandoned after " + entity.getAttempts() + " claims");
+                deleteAttachments(UUID.fromString(entity.getDeliveryId()));
+                continue;
+            }
+            entity.setStatus(Status.SENDING);
+            entity.setAttempts(entity.getAttempts() + 1);
+            entity.setClaimedBy(nodeId);
+            entity.setNextAttemptAt(now.plus(lease));
+            claimed.add(entity);
+        }
+        return claimed;
+    }
+
+    public EmailMessage toMessage(EmailOutboxMessage entity) {
+        var builder = EmailMessage.builder()
+                .from(entity.getFrom())
+                .to(entity.getTo())
+                .withSubject(entity.getSubject())
+                .withMessage(entity.getBody());
+        if (entity.getAttachmentPath() != null) {
+            Path attachment = Paths.get(entity.getAttachmentPath());
+            builder.attach(attachment.getFileName().toString(), new FileSystemResource(attachment));
+        }
+        return builder.build();
+    }
+
+    @Transactional
+    public void markSent(UUID deliveryId, int attempts) {
+        int updated = repository.complete(deliveryId.toString(), nodeId, attempts, Status.SENT, Instant.now(), null);
+        if (ownsClaim(deliveryId, updated)) deleteAttachments(deliveryId);
+    }
+
+    @Transactional
+    public void markFailed(UUID deliveryId, int attempts, String error) {
+        int updated = repository.complete(deliveryId.toString(), nodeId, attempts, Status.FAILED, null,
+                StringUtils.abbreviate(error, 1000));
+        if (ownsClaim(deliveryId, updated)) deleteAttachments(deliveryId);
+    }
+
+    // Retries go back through the table instead of memory, so none of them can outlast the lease of its claim
+    @Transactional
+    public void retryLater(UUID deliveryId, int attempts, String error) {
+        Instant nextAttemptAt = Instant.now().plus(retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 10)));
+        int updated = repository.release(deliveryId.toString(), nodeId, attempts, Status.PENDING, nextAttemptAt,
+                StringUtils.abbreviate(error, 1000));
+        ownsClaim(deliveryId, updated);
+    }
+
+    private boolean ownsClaim(UUID deliveryId, int updated) {
+        if (updated == 0) logger.warn("E-mail {} was claimed again before this node recorded its outcome", deliveryId);
+        return updated > 0;
+    }
+
+    public long backlog() {
+        return repository.countByStatusIn(OPEN);
+    }
+
+    @Transactional
+    public int purgeSentBefore(Instant before) {
+        return repository.deleteCompletedBefore(Status.SENT, before);
+    }
+
+    private String defaultFrom() {
+        return StringUtils.isNotBlank(emailConfig.getFrom()) ? emailConfig.getFrom() : emailConfig.getUsername();
+    }
+
+    private Path storeAttachment(UUID deliveryId, MultipartFile attachment) {
+        String fileName = org.springframework.util.StringUtils.cleanPath(attachment.getOriginalFilename());
+        if (fileName.isBlank() || fileName.contains("..") || fileName.contains("/")) {
+            throw new FileStorageException("Sorry! Filename Contains a Invalid path Sequence " + fileName);
+        }
+        try {
+            Path directory = Files.createDirectories(attachmentLocation.resolve(deliveryId.toString()));
+            Path target = directory.resolve(fileName);
+            // The File overload hands over to Part.write, which renames a part the container already spooled
+            // to disk, the Path overload would always copy it through a stream
+            attachment.transferTo(target.toFile());
+            return target;
+        } catch (IOException e) {
+            throw new FileStorageException("Could not store attachment " + fileName + ". Please try again!", e);
+        }
+    }
+
+    private void deleteAttachments(UUID deliveryId) {
+        try {
+            FileSystemUtils.deleteRecursively(attachmentLocation.resolve(deliveryId.toString()));
+        } catch (IOException e) {
+            logger.warn("Could not remove the attachments of e-mail {}", deliveryId, e);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package br.com.erudio.mail;
+
+import br.com.erudio.exception.ServiceUnavailableException;
+import br.com.erudio.model.EmailOutboxMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class EmailOutboxDispatcher {
+
+    private final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutbox outbox;
+    private final EmailDeliveryQueue deliveryQueue;
+    private final boolean enabled;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final ScheduledExecutorService scheduler;
+    private final AtomicLong backlog = new AtomicLong();
+    private Instant nextPurge = Instant.EPOCH;
+
+    private final Counter claimed;
+    private final Counter sent;
+    private final Counter failed;
+    private final Timer claimTime;
+
+    public EmailOutboxDispatcher(
+            EmailOutbox outbox,
+            EmailDeliveryQueue deliveryQueue,
+            @Value("${email.outbox.enabled:true}") boolean enabled,
+            @Value("${email.outbox.poll-interval-millis:1000}") long pollIntervalMillis,
+            @Value("${email.outbox.batch-size:50}") int batchSize,
+            @Value("${email.outbox.retention-days:7}") long retentionDays,
+            MeterRegistry meterRegistry) {
+        this.outbox = outbox;
+        this.deliveryQueue = deliveryQueue;
+        this.enabled = enabled;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batchSize = batchSize;
+        this.retention = Duration.ofDays(retentionDays);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("mail-outbox-"));
+
+        this.claimed = Counter.builder("mail.outbox.claimed")
+                .description("Outbox rows claimed by this node")
+                .register(meterRegistry);
+        this.sent = Counter.builder("mail.outbox.sent")
+                .description("Outbox rows marked as sent by this node")
+                .register(meterRegistry);
+        this.failed = Counter.builder("mail.outbox.failed")
+                .description("Outbox rows marked as failed by this node")
+                .register(meterRegistry);
+        this.claimTime = Timer.builder("mail.outbox.claim.time")
+                .description("Time spent claiming one batch of outbox rows")
+                .register(meterRegistry);
+        Gauge.builder("mail.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox rows waiting to be sent across all nodes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void poll() {
+        try {
+            // Keep claiming while full batches come back, the local queue bounds how much one node takes
+            while (true) {
+                int limit = Math.min(batchSize, deliveryQueue.remainingCapacity());
+                if (limit <= 0) break;
+                List<EmailOutboxMessage> batch = claimTime.record(() -> outbox.claim(limit));
+                claimed.increment(batch.size());
+                batch.forEach(this::dispatch);
+                if (batch.size() < limit) break;
+            }
+
+            backlog.set(outbox.backlog());
+            purgeIfDue();
+        } catch (RuntimeException e) {
+            logger.error("Could not poll the e-mail outbox", e);
+        }
+    }
+
+    private void dispatch(EmailOutboxMessage entity) {
+        UUID deliveryId = UUID.fromString(entity.getDeliveryId());
+        var claim = new Claim(entity.getAttempts());
+        try {
+            deliveryQueue.enqueue(deliveryId, outbox.toMessage(entity), claim);
+        } catch (ServiceUnavailableException e) {
+            // Left as SENDING, the row is picked up again once its lease expires
+            logger.warn("E-mail {} could not be queued locally, it will be retried after its lease", deliveryId);
+        } catch (RuntimeException e) {
+            claim.failed(deliveryId, e);
+        }
+    }
+
+    private void purgeIfDue() {
+        Instant now = Instant.now();
+        if (now.isBefore(nextPurge)) return;
+        nextPurge = now.plus(Duration.ofHours(1));
+        int purged = outbox.purgeSentBefore(now.minus(retention));
+        if (purged > 0) logger.info("Purged {} sent e-mail(s) from the outbox", purged);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // Outcomes are recorded against the claim they were sent under, see EmailOutboxRepository.complete
+    private final class Claim implements EmailDeliveryQueue.DeliveryListener {
+
+        private final int attempts;
+
+        Claim(int attempts) {
+            this.attempts = attempts;
+        }
+
+        @Override
+        public void sent(UUID deliveryId) {
+            outbox.markSent(deliveryId, attempts);
+            sent.increment();
+        }
+
+        @Override
+        public void failed(UUID deliveryId, Exception cause) {
+            outbox.markFailed(deliveryId, attempts, cause.getMessage());
+            failed.increment();
+        }
+
+        @Override
+        public boolean retryLater(UUID deliveryId, Exception cause) {
+            try {
+                outbox.retryLater(deliveryId, attempts, cause.getMessage());
+            } catch (RuntimeException e) {
+                // Still SENDING, the row is picked up again once its lease expires
+                logger.warn("E-mail {} could not be released, it will be retried after its lease", deliveryId, e);
+            }
+            return true;
+        }
+    }
+}
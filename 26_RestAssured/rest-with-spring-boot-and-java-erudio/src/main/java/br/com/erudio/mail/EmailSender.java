@@ -2,97 +2,82 @@ package br.com.erudio.mail;
 
 import br.com.erudio.config.EmailConfig;
 import jakarta.mail.MessagingException;
-import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.StringTokenizer;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Component
-public class EmailSender implements Serializable {
+public class EmailSender {
 
     Logger logger = LoggerFactory.getLogger(EmailSender.class);
 
     private final JavaMailSender mailSender;
-    private String to;
-    private String subject;
-    private String body;
-    private ArrayList<InternetAddress> recipients = new ArrayList<>();
-    private File attachment;
 
     public EmailSender(JavaMailSender mailSender) {
         this.mailSender = mailSender;
     }
 
-    public EmailSender to(String to) {
-        this.to = to;
-        this.recipients = getRecipients(to);
-        return this;
-    }
-
-    public EmailSender withSubject(String subject) {
-        this.subject = subject;
-        return this;
-    }
-
-    public EmailSender withMessage(String body) {
-        this.body = body;
-        return this;
-    }
-
-    public EmailSender attach(String fileDir) {
-        this.attachment = new File(fileDir);
-        return this;
-    }
+    // Sends the whole batch over a single SMTP connection and returns the messages that failed
+    public Map<EmailMessage, MailException> send(List<EmailMessage> batch, EmailConfig config) {
+        Map<EmailMessage, MailException> failures = new IdentityHashMap<>();
+        Map<MimeMessage, EmailMessage> prepared = new IdentityHashMap<>();
+        List<MimeMessage> mimeMessages = new ArrayList<>(batch.size());
+        for (EmailMessage email : batch) {
+            try {
+                MimeMessage message = createMimeMessage(email, config);
+                prepared.put(message, email);
+                mimeMessages.add(message);
+            } catch (MailPreparationException e) {
+                failures.put(email, e);
+            }
+        }
+        if (mimeMessages.isEmpty()) return failures;
 
-    public void send(EmailConfig config) {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = null;
         try {
-            helper = new MimeMessageHelper(message, true);
-            helper.setFrom(config.getUsername());
-            helper.setTo(recipients.toArray(new InternetAddress[0]));
-            helper.setSubject(subject);
-            helper.setText(body, true);
-            if (attachment != null) {
-                helper.addAttachment(attachment.getName(), attachment);
+            mailSender.send(mimeMessages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                prepared.values().forEach(email -> failures.put(email, e));
             }
-            mailSender.send(message);
-            logger.info("Email sent to %s with the subject '%s'%n", to, subject);
-            reset();
-        } catch (MessagingException e) {
-            throw new RuntimeException("Error sending the email", e);
+            e.getFailedMessages().forEach((message, cause) -> {
+                EmailMessage email = prepared.get(message);
+                if (email != null) failures.put(email, new MailSendException("Error sending the email", cause));
+            });
+        } catch (MailException e) {
+            prepared.values().forEach(email -> failures.put(email, e));
         }
-
-    }
-
-    private void reset() {
-        this.to = null;
-        this.subject = null;
-        this.body = null;
-        this.recipients = null;
-        this.attachment = null;
+        prepared.values().stream()
+                .filter(email -> !failures.containsKey(email))
+                .forEach(email -> logger.info("Email sent to {} with the subject '{}'", email.getTo(), email.getSubject()));
+        return failures;
     }
 
-    private ArrayList<InternetAddress> getRecipients(String to) {
-        String toWithoutSpaces = to.replaceAll("\\s", "");
-        StringTokenizer tok = new StringTokenizer(toWithoutSpaces, ";");
-        ArrayList<InternetAddress> recipientsList = new ArrayList<>();
-        while (tok.hasMoreElements()) {
-            try {
-                recipientsList.add(new InternetAddress(tok.nextElement().toString()));
-            } catch (AddressException e) {
-                throw new RuntimeException(e);
+    private MimeMessage createMimeMessage(EmailMessage email, EmailConfig config) {
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, true);
+            helper.setFrom(email.getFrom() != null ? email.getFrom() : config.getUsername());
+            helper.setTo(email.getRecipients().toArray(new InternetAddress[0]));
+            helper.setSubject(email.getSubject());
+            helper.setText(email.getBody(), true);
+            if (email.getAttachment() != null) {
+                helper.addAttachment(email.getAttachmentName(), email.getAttachment());
             }
+            return message;
+        } catch (MessagingException e) {
+            throw new MailPreparationException("Error preparing the email", e);
         }
-        return recipientsList;
     }
 }
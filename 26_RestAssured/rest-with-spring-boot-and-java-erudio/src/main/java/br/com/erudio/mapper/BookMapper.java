@@ -0,0 +1,14 @@
+package br.com.erudio.mapper;
+
+import br.com.erudio.data.dto.BookDTO;
+import br.com.erudio.model.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface BookMapper {
+
+    BookDTO toDTO(Book book);
+
+    Book toEntity(BookDTO book);
+}
@@ -1,24 +1,43 @@
 package br.com.erudio.mapper;
 
-import com.github.dozermapper.core.DozerBeanMapperBuilder;
-import com.github.dozermapper.core.Mapper;
+import br.com.erudio.data.dto.BookDTO;
+import br.com.erudio.data.dto.PersonDTO;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import org.mapstruct.factory.Mappers;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class ObjectMapper {
 
-    private static Mapper mapper = DozerBeanMapperBuilder.buildDefault();
+    private static final PersonMapper personMapper = Mappers.getMapper(PersonMapper.class);
+    private static final BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
 
     public static <O, D> D parseObject(O origin, Class<D> destination) {
-        return mapper.map(origin, destination);
+        if (origin == null) return null;
+
+        Object parsed;
+        if (origin instanceof Person person && destination == PersonDTO.class) {
+            parsed = personMapper.toDTO(person);
+        } else if (origin instanceof PersonDTO person && destination == Person.class) {
+            parsed = personMapper.toEntity(person);
+        } else if (origin instanceof Book book && destination == BookDTO.class) {
+            parsed = bookMapper.toDTO(book);
+        } else if (origin instanceof BookDTO book && destination == Book.class) {
+            parsed = bookMapper.toEntity(book);
+        } else {
+            throw new IllegalArgumentException("No mapping defined from "
+                    + origin.getClass().getSimpleName() + " to " + destination.getSimpleName());
+        }
+        return destination.cast(parsed);
     }
 
     public static <O, D> List<D> parseListObjects(List<O> origin, Class<D> destination) {
 
-        List<D> destinationObjects = new ArrayList<D>();
-        for (Object o : origin) {
-            destinationObjects.add(mapper.map(o, destination));
+        List<D> destinationObjects = new ArrayList<D>(origin.size());
+        for (O o : origin) {
+            destinationObjects.add(parseObject(o, destination));
         }
 
         return destinationObjects;
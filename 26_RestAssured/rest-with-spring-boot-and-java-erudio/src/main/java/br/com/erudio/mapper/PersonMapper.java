@@ -0,0 +1,24 @@
+package br.com.erudio.mapper;
+
+import br.com.erudio.data.dto.PersonDTO;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import org.hibernate.Hibernate;
+import org.mapstruct.Mapper;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE)
+public interface PersonMapper {
+
+    PersonDTO toDTO(Person person);
+
+    Person toEntity(PersonDTO person);
+
+    // Books are handed over as-is instead of being copied element by element,
+    // a collection that was never fetched is left out so the DTO cannot touch a closed session
+    default List<Book> books(List<Book> books) {
+        return Hibernate.isInitialized(books) ? books : null;
+    }
+}
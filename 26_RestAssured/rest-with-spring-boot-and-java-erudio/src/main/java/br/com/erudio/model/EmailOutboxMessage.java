@@ -0,0 +1,189 @@
+package br.com.erudio.model;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutboxMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "delivery_id", nullable = false, unique = true, length = 36)
+    private String deliveryId;
+
+    @Column(name = "mail_from")
+    private String from;
+
+    @Column(name = "mail_to", nullable = false, length = 1000)
+    private String to;
+
+    @Column
+    private String subject;
+
+    @Column(columnDefinition = "mediumtext")
+    private String body;
+
+    @Column(name = "attachment_path", length = 500)
+    private String attachmentPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // For SENDING rows this is when the claim lease runs out and another node may take over
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    public EmailOutboxMessage() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    public String getAttachmentPath() {
+        return attachmentPath;
+    }
+
+    public void setAttachmentPath(String attachmentPath) {
+        this.attachmentPath = attachmentPath;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getClaimedBy() {
+        return claimedBy;
+    }
+
+    public void setClaimedBy(String claimedBy) {
+        this.claimedBy = claimedBy;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof EmailOutboxMessage that)) return false;
+        return Objects.equals(getId(), that.getId()) && Objects.equals(getDeliveryId(), that.getDeliveryId()) && Objects.equals(getFrom(), that.getFrom()) && Objects.equals(getTo(), that.getTo()) && Objects.equals(getSubject(), that.getSubject()) && Objects.equals(getBody(), that.getBody()) && Objects.equals(getAttachmentPath(), that.getAttachmentPath()) && getStatus() == that.getStatus() && Objects.equals(getAttempts(), that.getAttempts()) && Objects.equals(getNextAttemptAt(), that.getNextAttemptAt()) && Objects.equals(getClaimedBy(), that.getClaimedBy()) && Objects.equals(getLastError(), that.getLastError()) && Objects.equals(getCreatedAt(), that.getCreatedAt()) && Objects.equals(getSentAt(), that.getSentAt());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getDeliveryId(), getFrom(), getTo(), getSubject(), getBody(), getAttachmentPath(), getStatus(), getAttempts(), getNextAttemptAt(), getClaimedBy(), getLastError(), getCreatedAt(), getSentAt());
+    }
+}
@@ -24,7 +24,10 @@ public class User implements UserDetails, Serializable {
 
     @Id
 
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+
+    @TableGenerator(name = "users_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
 
     private Long id;
 
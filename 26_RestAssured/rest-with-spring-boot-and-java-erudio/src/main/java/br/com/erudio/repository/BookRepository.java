@@ -1,7 +1,20 @@
 package br.com.erudio.repository;
 
 import br.com.erudio.model.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface BookRepository extends JpaRepository<Book, Long> {
+
+    List<Book> findAllBy(Pageable pageable);
+
+    @Query("SELECT b FROM Book b WHERE (b.title, b.id) > (:title, :id) ORDER BY b.title, b.id")
+    List<Book> findPageAfter(@Param("title") String title, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT b FROM Book b WHERE (b.title, b.id) < (:title, :id) ORDER BY b.title DESC, b.id DESC")
+    List<Book> findPageBefore(@Param("title") String title, @Param("id") Long id, Pageable pageable);
 }
@@ -0,0 +1,55 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.model.EmailOutboxMessage;
+import br.com.erudio.model.EmailOutboxMessage.Status;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.jpa.SpecHints.HINT_SPEC_LOCK_TIMEOUT;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    // A lock timeout of -2 is rendered as FOR UPDATE SKIP LOCKED, so concurrent nodes claim disjoint rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            SELECT m FROM EmailOutboxMessage m
+            WHERE m.status IN :statuses AND m.nextAttemptAt <= :now
+            ORDER BY m.nextAttemptAt""")
+    List<EmailOutboxMessage> findClaimable(@Param("statuses") Collection<Status> statuses,
+                                           @Param("now") Instant now, Pageable pageable);
+
+    long countByStatusIn(Collection<Status> statuses);
+
+    // Only applies while the row still carries this claim, a node that outlived its lease cannot overwrite the new one
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m SET m.status = :status, m.sentAt = :sentAt, m.lastError = :lastError
+            WHERE m.deliveryId = :deliveryId AND m.claimedBy = :claimedBy AND m.attempts = :attempts""")
+    int complete(@Param("deliveryId") String deliveryId, @Param("claimedBy") String claimedBy,
+                 @Param("attempts") int attempts, @Param("status") Status status,
+                 @Param("sentAt") Instant sentAt, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m SET m.status = :status, m.nextAttemptAt = :nextAttemptAt, m.lastError = :lastError
+            WHERE m.deliveryId = :deliveryId AND m.claimedBy = :claimedBy AND m.attempts = :attempts""")
+    int release(@Param("deliveryId") String deliveryId, @Param("claimedBy") String claimedBy,
+                @Param("attempts") int attempts, @Param("status") Status status,
+                @Param("nextAttemptAt") Instant nextAttemptAt, @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteCompletedBefore(@Param("status") Status status, @Param("before") Instant before);
+}
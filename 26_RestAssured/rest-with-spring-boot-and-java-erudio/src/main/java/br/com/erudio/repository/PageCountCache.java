@@ -0,0 +1,97 @@
+package br.com.erudio.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Totals for paged responses, kept per query shape so a page does not pay for a COUNT(*) every time
+@Component
+public class PageCountCache {
+
+    private final Cache<String, Long> counts;
+    private final boolean estimated;
+    // Bumped on every write, a count that started before it is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter cached;
+    private final Counter queried;
+    private final Counter estimates;
+    private final Counter skipped;
+
+    public PageCountCache(
+            @Value("${pagination.count-cache.ttl-millis:5000}") long ttlMillis,
+            @Value("${pagination.count-cache.max-size:10000}") long maxSize,
+            @Value("${pagination.count-cache.mode:exact}") String mode,
+            MeterRegistry meterRegistry) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .recordStats()
+                .build();
+        this.estimated = "estimated".equalsIgnoreCase(mode);
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, "page.counts");
+
+        this.cached = pageCounter(meterRegistry, "cache");
+        this.queried = pageCounter(meterRegistry, "query");
+        this.estimates = pageCounter(meterRegistry, "estimate");
+        this.skipped = pageCounter(meterRegistry, "skipped");
+    }
+
+    // The count only runs when the page alone cannot tell the total, e.g. a short last page
+    public <T> Page<T> toPage(String shape, List<T> content, Pageable pageable, LongSupplier exactCount, LongSupplier estimatedCount) {
+        boolean[] counted = new boolean[1];
+        Page<T> page = PageableExecutionUtils.getPage(content, pageable, () -> {
+            counted[0] = true;
+            return total(shape, exactCount, estimatedCount);
+        });
+        if (!counted[0]) skipped.increment();
+        return page;
+    }
+
+    public <T> Page<T> toPage(String shape, List<T> content, Pageable pageable, LongSupplier exactCount) {
+        return toPage(shape, content, pageable, exactCount, null);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    private long total(String shape, LongSupplier exactCount, LongSupplier estimatedCount) {
+        Long total = counts.getIfPresent(shape);
+        if (total != null) {
+            cached.increment();
+            return total;
+        }
+
+        long startedAt = generation.get();
+        if (estimated && estimatedCount != null) {
+            total = estimatedCount.getAsLong();
+            estimates.increment();
+        } else {
+            total = exactCount.getAsLong();
+            queried.increment();
+        }
+        if (generation.get() == startedAt) counts.put(shape, total);
+        return total;
+    }
+
+    private static Counter pageCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("pagination.page.totals")
+                .description("Paged responses by where their total came from, anything but query saved a COUNT(*)")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.search.PersonName;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Repository
+public class PersonBatchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void insertAll(List<Person> people) {
+        try {
+            for (Person person : people) {
+                entityManager.persist(person);
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } catch (RuntimeException e) {
+            // The chunk is rolled back, so the ids it was given are released for a retry
+            people.forEach(person -> person.setId(null));
+            throw e;
+        }
+    }
+
+    @Transactional
+    public void streamAll(PersonStreamHandler handler) throws Exception {
+        try (Stream<Person> people = personRepository.streamAll()) {
+            handler.handle(people);
+        }
+    }
+
+    @Transactional
+    public void streamNames(Consumer<PersonName> consumer) {
+        try (Stream<PersonName> names = personRepository.streamNames()) {
+            names.forEach(consumer);
+        }
+    }
+
+    public void detach(Person person) {
+        entityManager.detach(person);
+    }
+
+    @FunctionalInterface
+    public interface PersonStreamHandler {
+        void handle(Stream<Person> people) throws Exception;
+    }
+}
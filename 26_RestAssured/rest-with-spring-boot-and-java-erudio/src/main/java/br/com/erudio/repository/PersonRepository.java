@@ -1,13 +1,26 @@
 package br.com.erudio.repository;
 
 import br.com.erudio.model.Person;
+import br.com.erudio.search.PersonName;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 public interface PersonRepository extends JpaRepository<Person, Long> {
 
     @Modifying(clearAutomatically = true)
@@ -16,4 +29,50 @@ public interface PersonRepository extends JpaRepository<Person, Long> {
 
     @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
     Page<Person> findPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
+    List<Person> findPageOfPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    @Query("SELECT COUNT(p) FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
+    long countPeopleByName(@Param("firstName") String firstName);
+
+    // InnoDB statistics, cheap but only approximate and refreshed by MySQL on its own schedule
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'person'", nativeQuery = true)
+    Long estimateCount();
+
+    @Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
+    Slice<Person> findSliceOfPeopleByName(@Param("firstName") String firstName, Pageable pageable);
+
+    // Anchored patterns can range scan the name indexes, '!' escapes wildcards typed by the user
+    @Query("SELECT p FROM Person p WHERE p.firstName LIKE :prefix ESCAPE '!' OR p.lastName LIKE :prefix ESCAPE '!'")
+    Slice<Person> findPeopleByNamePrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    List<Person> findAllBy(Pageable pageable);
+
+    // Books are lazy, this joins them in for the callers that actually read them
+    @EntityGraph(attributePaths = "books")
+    Optional<Person> findWithBooksById(Long id);
+
+    // Row constructor comparisons range scan the first name index, which ends with the primary key
+    @Query("SELECT p FROM Person p WHERE (p.firstName, p.id) > (:firstName, :id) ORDER BY p.firstName, p.id")
+    List<Person> findPageAfter(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT p FROM Person p WHERE (p.firstName, p.id) < (:firstName, :id) ORDER BY p.firstName DESC, p.id DESC")
+    List<Person> findPageBefore(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT p FROM Person p ORDER BY p.id")
+    Stream<Person> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT new br.com.erudio.search.PersonName(p.id, p.firstName) FROM Person p ORDER BY p.id")
+    Stream<PersonName> streamNames();
 }
@@ -0,0 +1,30 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.model.RefreshToken;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    // Plain insert, save() would merge and read the assigned id back first
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO refresh_token (jti, expires_at) VALUES (:jti, :expiresAt)", nativeQuery = true)
+    int register(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt);
+
+    // Deleting the row is the exchange, only one node can ever see a count of 1 for the same jti
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.jti = :jti AND t.expiresAt > :now")
+    int consume(@Param("jti") String jti, @Param("now") Instant now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
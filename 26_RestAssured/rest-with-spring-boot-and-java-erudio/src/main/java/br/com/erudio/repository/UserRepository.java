@@ -10,4 +10,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.userName =:userName")
     User findByUsername(@Param("userName") String userName);
 
-}
\ No newline at end of file
+    @Query("""
+            SELECT CASE WHEN u.enabled = true AND u.accountNonExpired = true
+                AND u.accountNonLocked = true AND u.credentialsNonExpired = true
+                THEN true ELSE false END
+            FROM User u WHERE u.userName =:userName""")
+    Boolean isActive(@Param("userName") String userName);
+
+}
@@ -0,0 +1,4 @@
+package br.com.erudio.search;
+
+public record PersonName(Long id, String firstName) {
+}
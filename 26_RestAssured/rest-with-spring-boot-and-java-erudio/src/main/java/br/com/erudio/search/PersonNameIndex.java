@@ -0,0 +1,638 @@
+package br.com.erudio.search;
+
+import br.com.erudio.repository.PersonBatchRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+// In-memory n-gram index over person first names, answers the same case and accent insensitive
+// "contains" query as PersonRepository.findPeopleByName without touching the database
+@Component
+public class PersonNameIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonNameIndex.class);
+
+    private static final int GRAM = 3;
+    private static final int VERIFY_THRESHOLD = 256;
+    private static final int MIN_DEAD_SLOTS_TO_COMPACT = 4096;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final PersonBatchRepository personBatchRepository;
+    private final boolean enabled;
+    private final long refreshSeconds;
+    private final ScheduledExecutorService builder;
+    private final Timer searchTime;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    private Segment segment = new Segment(1024);
+    // Writes made while a new segment is being built, replayed on it before the swap
+    private List<PersonName> pendingWrites;
+    private boolean compactionQueued;
+
+    @Autowired
+    public PersonNameIndex(
+            PersonBatchRepository personBatchRepository,
+            @Value("${person.search.index.enabled:true}") boolean enabled,
+            @Value("${person.search.index.refresh-seconds:300}") long refreshSeconds,
+            MeterRegistry meterRegistry) {
+        this(personBatchRepository, enabled, refreshSeconds, meterRegistry,
+                Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("person-index-")));
+    }
+
+    public PersonNameIndex(PersonBatchRepository personBatchRepository, boolean enabled, long refreshSeconds,
+                           MeterRegistry meterRegistry, ScheduledExecutorService builder) {
+        this.personBatchRepository = personBatchRepository;
+        this.enabled = enabled;
+        this.refreshSeconds = refreshSeconds;
+        this.builder = builder;
+
+        this.searchTime = Timer.builder("people.search.index.time")
+                .description("Time spent resolving one page of people from the name index")
+                .register(meterRegistry);
+        Gauge.builder("people.search.index.size", this, PersonNameIndex::size)
+                .description("People held in the name index")
+                .register(meterRegistry);
+        Gauge.builder("people.search.index.bytes", this, PersonNameIndex::estimatedBytes)
+                .description("Estimated heap used by the name index")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+        builder.execute(this::build);
+        // Only this node's writes reach the index directly, the periodic rebuild picks up the other nodes' ones
+        if (refreshSeconds > 0) {
+            builder.scheduleWithFixedDelay(this::build, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // Searches keep using the current segment while the table is streamed into a new one
+    public void build() {
+        long start = System.nanoTime();
+        try {
+            boolean built = rebuild(fresh -> personBatchRepository.streamNames(row -> fresh.put(row.id(), fold(row.firstName()))));
+            if (!built) return;
+            ready = true;
+            logger.info("Indexed {} people names in {} ms, using about {} KB",
+                    size(), (System.nanoTime() - start) / 1_000_000, estimatedBytes() / 1024);
+        } catch (RuntimeException e) {
+            logger.error("Could not build the people name index", e);
+        }
+    }
+
+    // LIKE wildcards typed by the user and other sort orders are left to the database
+    public boolean supports(String firstName, Pageable pageable) {
+        if (!ready || pageable.isUnpaged()) return false;
+        if (firstName == null || firstName.indexOf('%') >= 0 || firstName.indexOf('_') >= 0) return false;
+        Sort sort = pageable.getSort();
+        if (sort.isUnsorted()) return true;
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && "firstName".equals(orders.get(0).getProperty());
+    }
+
+    public Result search(String firstName, Pageable pageable) {
+        String query = fold(firstName);
+        Sort.Order order = pageable.getSort().getOrderFor("firstName");
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int[] matches = segment.matches(query);
+            return new Result(segment.page(matches, pageable, order), matches.length);
+        } finally {
+            lock.readLock().unlock();
+            searchTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void put(Long id, String firstName) {
+        if (!enabled || id == null) return;
+        String folded = fold(firstName);
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            boolean changed = segment.put(id, folded);
+            // The segment being rebuilt may not have the row yet, so the write is replayed even when it changed nothing here
+            if (pendingWrites != null) pendingWrites.add(new PersonName(id, folded));
+            compact = changed && queueCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) submitCompaction();
+    }
+
+    public void remove(Long id) {
+        if (!enabled || id == null) return;
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            boolean changed = segment.remove(id);
+            if (pendingWrites != null) pendingWrites.add(new PersonName(id, null));
+            compact = changed && queueCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact) submitCompaction();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.live;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return segment.estimatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called under the write lock
+    private boolean queueCompaction() {
+        if (compactionQueued || pendingWrites != null || !segment.needsCompaction()) return false;
+        compactionQueued = true;
+        return true;
+    }
+
+    // The writer that crossed the threshold returns right away, the rebuild runs on the index thread
+    private void submitCompaction() {
+        try {
+            builder.execute(this::compact);
+        } catch (RejectedExecutionException e) {
+            lock.writeLock().lock();
+            try {
+                compactionQueued = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void compact() {
+        lock.writeLock().lock();
+        try {
+            compactionQueued = false;
+            if (!segment.needsCompaction()) return;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        rebuild(compacted -> {
+            long[] ids;
+            String[] names;
+            lock.readLock().lock();
+            try {
+                ids = Arrays.copyOf(segment.ids, segment.slots);
+                names = Arrays.copyOf(segment.names, segment.slots);
+            } finally {
+                lock.readLock().unlock();
+            }
+            for (int slot = 0; slot < ids.length; slot++) {
+                if (names[slot] != null) compacted.append(ids[slot], names[slot]);
+            }
+        });
+    }
+
+    // One rebuild at a time. Only the swap holds the write lock, searches and writes keep using the
+    // current segment while the new one is filled. False when another rebuild was already running
+    private boolean rebuild(Consumer<Segment> fill) {
+        lock.writeLock().lock();
+        try {
+            if (pendingWrites != null) return false;
+            pendingWrites = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Segment rebuilt = new Segment(1024);
+        boolean filled = false;
+        try {
+            fill.accept(rebuilt);
+            filled = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // Writes are replayed in order, one the new segment already has is a no-op
+                if (filled) {
+                    for (PersonName write : pendingWrites) {
+                        if (write.firstName() == null) rebuilt.remove(write.id());
+                        else rebuilt.put(write.id(), write.firstName());
+                    }
+                    segment = rebuilt;
+                }
+                pendingWrites = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return true;
+    }
+
+    // Mirrors the accent and case insensitive collation the person table uses
+    static String fold(String value) {
+        if (value == null) return "";
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 127) {
+                return COMBINING_MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD))
+                        .replaceAll("").toLowerCase(Locale.ROOT);
+            }
+        }
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    // The first four chars packed in order, most comparisons end here without reading the names
+    private static long sortKey(String value) {
+        long key = 0;
+        for (int i = 0; i < 4; i++) {
+            key = (key << 16) | (i < value.length() ? value.charAt(i) : 0);
+        }
+        return key;
+    }
+
+    // String header plus its Latin-1 backing array, names outside Latin-1 take two bytes per char
+    private static long stringBytes(String value) {
+        return 24 + 16 + value.length();
+    }
+
+    // Up to three 16 bit chars with the gram length on top, so "ab" and "\0ab" never share a key
+    private static long gram(String value, int from, int length) {
+        long key = length;
+        for (int i = from; i < from + length; i++) {
+            key = (key << 16) | value.charAt(i);
+        }
+        return key;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow();
+    }
+
+    public record Result(List<Long> ids, long total) {
+    }
+
+    // Slots are only ever appended, a renamed person gets a new one, so every posting list stays sorted
+    private static final class Segment {
+
+        private long[] ids;
+        private String[] names;
+        private long[] sortKeys;
+        private int slots;
+        private int live;
+        private long nameBytes;
+        private final SlotTable slotsById = new SlotTable();
+        private final Map<Long, Postings> postings = new HashMap<>();
+
+        Segment(int capacity) {
+            ids = new long[capacity];
+            names = new String[capacity];
+            sortKeys = new long[capacity];
+        }
+
+        // False when the person is already indexed under the same name
+        boolean put(long id, String folded) {
+            int slot = slotsById.get(id);
+            if (slot >= 0) {
+                if (folded.equals(names[slot])) return false;
+                release(slot);
+            }
+            append(id, folded);
+            return true;
+        }
+
+        boolean remove(long id) {
+            int slot = slotsById.get(id);
+            if (slot < 0) return false;
+            release(slot);
+            return true;
+        }
+
+        boolean needsCompaction() {
+            int dead = slots - live;
+            return dead >= MIN_DEAD_SLOTS_TO_COMPACT && dead >= live;
+        }
+
+        // Rough heap footprint: slot arrays, the id table, live name strings and the posting lists
+        long estimatedBytes() {
+            long bytes = 3 * 16L + ids.length * 8L + names.length * 4L + sortKeys.length * 8L + slotsById.estimatedBytes() + nameBytes;
+            for (Postings list : postings.values()) {
+                bytes += 48 + 16 + list.estimatedBytes();
+            }
+            return bytes;
+        }
+
+        void append(long id, String folded) {
+            if (slots == ids.length) {
+                ids = Arrays.copyOf(ids, slots * 2);
+                names = Arrays.copyOf(names, slots * 2);
+                sortKeys = Arrays.copyOf(sortKeys, slots * 2);
+            }
+            int slot = slots++;
+            ids[slot] = id;
+            names[slot] = folded;
+            sortKeys[slot] = sortKey(folded);
+            nameBytes += stringBytes(folded);
+            slotsById.put(id, slot);
+            // Grams of one and two chars let the first keystrokes of an autocomplete skip the name scan
+            for (int length = 1; length <= GRAM; length++) {
+                for (int i = 0; i + length <= folded.length(); i++) {
+                    postings.computeIfAbsent(gram(folded, i, length), key -> new Postings()).add(slot);
+                }
+            }
+            live++;
+        }
+
+        // The slot stays in the posting lists until the next compaction, a null name marks it dead
+        void release(int slot) {
+            slotsById.remove(ids[slot]);
+            nameBytes -= stringBytes(names[slot]);
+            names[slot] = null;
+            live--;
+        }
+
+        int[] matches(String query) {
+            if (query.isEmpty()) return all();
+            int length = Math.min(GRAM, query.length());
+
+            List<Postings> lists = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + length <= query.length(); i++) {
+                long key = gram(query, i, length);
+                if (!seen.add(key)) continue;
+                Postings list = postings.get(key);
+                if (list == null) return new int[0];
+                lists.add(list);
+            }
+            lists.sort(Comparator.comparingInt(list -> list.count));
+
+            // Once few candidates are left checking their names is cheaper than decoding the longer lists
+            int[] candidates = lists.get(0).decode();
+            for (int i = 1; i < lists.size() && candidates.length > VERIFY_THRESHOLD; i++) {
+                candidates = lists.get(i).intersect(candidates);
+            }
+
+            // A query no longer than a gram is answered by its posting list alone, only dead slots are dropped
+            boolean verify = query.length() > GRAM;
+            int found = 0;
+            for (int slot : candidates) {
+                String name = names[slot];
+                if (name != null && (!verify || name.contains(query))) candidates[found++] = slot;
+            }
+            return Arrays.copyOf(candidates, found);
+        }
+
+        private int[] all() {
+            int[] found = new int[live];
+            int count = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                if (names[slot] != null) found[count++] = slot;
+            }
+            return found;
+        }
+
+        // Only the requested page is ordered: a bounded heap keeps the first offset + size matches
+        List<Long> page(int[] matches, Pageable pageable, Sort.Order order) {
+            long offset = pageable.getOffset();
+            if (offset >= matches.length) return List.of();
+            int limit = (int) Math.min(matches.length, offset + pageable.getPageSize());
+            boolean byName = order != null;
+            int sign = byName && order.isDescending() ? -1 : 1;
+
+            // The root is the last of the best matches seen so far, anything ordered after it is skipped
+            int[] heap = new int[limit];
+            int size = 0;
+            for (int slot : matches) {
+                if (size < limit) {
+                    heap[size] = slot;
+                    siftUp(heap, size++, byName, sign);
+                } else if (compare(slot, heap[0], byName, sign) < 0) {
+                    heap[0] = slot;
+                    siftDown(heap, size, byName, sign);
+                }
+            }
+
+            Long[] ordered = new Long[size];
+            for (int i = size - 1; i >= 0; i--) {
+                ordered[i] = ids[heap[0]];
+                heap[0] = heap[i];
+                siftDown(heap, i, byName, sign);
+            }
+            return Arrays.asList(ordered).subList((int) offset, size);
+        }
+
+        private int compare(int a, int b, boolean byName, int sign) {
+            int result = 0;
+            if (byName) {
+                result = Long.compareUnsigned(sortKeys[a], sortKeys[b]);
+                if (result == 0) result = names[a].compareTo(names[b]);
+            }
+            if (result == 0) result = Long.compare(ids[a], ids[b]);
+            return result * sign;
+        }
+
+        private void siftUp(int[] heap, int index, boolean byName, int sign) {
+            int slot = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (compare(slot, heap[parent], byName, sign) <= 0) break;
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = slot;
+        }
+
+        private void siftDown(int[] heap, int size, boolean byName, int sign) {
+            if (size == 0) return;
+            int slot = heap[0];
+            int index = 0;
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) break;
+                if (child + 1 < size && compare(heap[child + 1], heap[child], byName, sign) > 0) child++;
+                if (compare(slot, heap[child], byName, sign) >= 0) break;
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = slot;
+        }
+    }
+
+    // Sorted slots stored as varint gaps, most gaps in a large index fit in one or two bytes
+    private static final class Postings {
+
+        private byte[] data = new byte[4];
+        private int length;
+        private int count;
+        private int last = -1;
+
+        void add(int slot) {
+            if (slot == last) return;
+            int gap = slot - last;
+            if (length + 5 > data.length) data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+            while ((gap & ~0x7F) != 0) {
+                data[length++] = (byte) ((gap & 0x7F) | 0x80);
+                gap >>>= 7;
+            }
+            data[length++] = (byte) gap;
+            last = slot;
+            count++;
+        }
+
+        int[] decode() {
+            int[] slots = new int[count];
+            int position = 0;
+            int slot = -1;
+            for (int i = 0; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                slot += gap;
+                slots[i] = slot;
+            }
+            return slots;
+        }
+
+        // Merges the sorted candidates with this list while decoding it, stopping at the last candidate
+        int[] intersect(int[] candidates) {
+            int[] result = new int[candidates.length];
+            int found = 0;
+            int next = 0;
+            int position = 0;
+            int slot = -1;
+            for (int i = 0; i < count && next < candidates.length; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                slot += gap;
+                while (next < candidates.length && candidates[next] < slot) next++;
+                if (next < candidates.length && candidates[next] == slot) result[found++] = candidates[next++];
+            }
+            return Arrays.copyOf(result, found);
+        }
+
+        long estimatedBytes() {
+            return 16 + 16 + data.length;
+        }
+    }
+
+    // Open addressing from person id to slot, avoids a boxed Long and map entry per person
+    private static final class SlotTable {
+
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private boolean[] used = new boolean[2048];
+        private int size;
+
+        int get(long id) {
+            int mask = keys.length - 1;
+            for (int i = hash(id) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == id) return values[i];
+            }
+            return -1;
+        }
+
+        void put(long id, int slot) {
+            if ((size + 1) * 2 > keys.length) resize();
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (used[i]) {
+                if (keys[i] == id) {
+                    values[i] = slot;
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            used[i] = true;
+            keys[i] = id;
+            values[i] = slot;
+            size++;
+        }
+
+        // Backward shift deletion keeps probe chains intact without tombstones
+        void remove(long id) {
+            int mask = keys.length - 1;
+            int i = hash(id) & mask;
+            while (used[i] && keys[i] != id) i = (i + 1) & mask;
+            if (!used[i]) return;
+            size--;
+            int gap = i;
+            for (int j = (gap + 1) & mask; used[j]; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            used[gap] = false;
+        }
+
+        long estimatedBytes() {
+            return 48L + keys.length * 13L;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[keys.length];
+            used = new boolean[keys.length];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+            }
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.erudio.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class AdaptivePbkdf2PasswordEncoder implements PasswordEncoder {
+
+    public static final int LEGACY_ITERATIONS = 185000;
+
+    private static final String LEGACY_PREFIX = "{pbkdf2}";
+    private static final String PREFIX = "{pbkdf2-";
+    private static final int MAX_STORED_ITERATIONS = 10_000_000;
+    private static final int CALIBRATION_ITERATIONS = 20000;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePbkdf2PasswordEncoder.class);
+
+    private final int iterations;
+    private final Map<Integer, PasswordEncoder> encoders = new ConcurrentHashMap<>();
+
+    public AdaptivePbkdf2PasswordEncoder(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public static AdaptivePbkdf2PasswordEncoder calibrated(long targetHashMillis, int minIterations, int maxIterations) {
+        PasswordEncoder probe = pbkdf2(CALIBRATION_ITERATIONS);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            probe.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        long target = (long) CALIBRATION_ITERATIONS * targetHashMillis * 1_000_000L / Math.max(best, 1L);
+        int iterations = (int) Math.min(Math.max(Math.round(target / 1000.0) * 1000L, minIterations), maxIterations);
+        logger.info("PBKDF2 calibrated to {} iterations for a {} ms target", iterations, targetHashMillis);
+        return new AdaptivePbkdf2PasswordEncoder(iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return PREFIX + iterations + "}" + encoder(iterations).encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) return false;
+        int stored = iterationsOf(encodedPassword);
+        if (stored <= 0) return false;
+        return encoder(stored).matches(rawPassword, hashOf(encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        int stored = iterationsOf(encodedPassword);
+        return stored > 0 && stored < iterations;
+    }
+
+    private PasswordEncoder encoder(int iterations) {
+        return encoders.computeIfAbsent(iterations, AdaptivePbkdf2PasswordEncoder::pbkdf2);
+    }
+
+    private static PasswordEncoder pbkdf2(int iterations) {
+        return new Pbkdf2PasswordEncoder("", 8, iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+    }
+
+    // Hashes without an iteration count predate calibration and use the legacy cost
+    private static int iterationsOf(String encodedPassword) {
+        if (!encodedPassword.startsWith(PREFIX)) return LEGACY_ITERATIONS;
+        int end = encodedPassword.indexOf('}');
+        try {
+            int stored = Integer.parseInt(encodedPassword.substring(PREFIX.length(), end));
+            return stored <= MAX_STORED_ITERATIONS ? stored : -1;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return -1;
+        }
+    }
+
+    private static String hashOf(String encodedPassword) {
+        if (encodedPassword.startsWith(LEGACY_PREFIX)) return encodedPassword.substring(LEGACY_PREFIX.length());
+        if (encodedPassword.startsWith(PREFIX)) return encodedPassword.substring(encodedPassword.indexOf('}') + 1);
+        return encodedPassword;
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.erudio.security;
+
+import br.com.erudio.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+@Component
+public class LoginRateLimiter {
+
+    private final Limit usernameLimit;
+    private final Limit ipLimit;
+    private final LongSupplier nanoTime;
+
+    // Each bucket is a single theoretical arrival time (GCRA), the lock-free form of a token bucket
+    private final Cache<String, AtomicLong> usernameBuckets;
+    private final Cache<String, AtomicLong> ipBuckets;
+
+    private final Counter allowed;
+    private final Counter limitedByUsername;
+    private final Counter limitedByIp;
+
+    @Autowired
+    public LoginRateLimiter(
+            @Value("${security.login-rate-limit.username.capacity:5}") int usernameCapacity,
+            @Value("${security.login-rate-limit.username.refill-per-minute:5}") int usernameRefillPerMinute,
+            @Value("${security.login-rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.login-rate-limit.ip.refill-per-minute:20}") int ipRefillPerMinute,
+            @Value("${security.login-rate-limit.max-keys:100000}") int maxKeys,
+            MeterRegistry meterRegistry) {
+        this(usernameCapacity, usernameRefillPerMinute, ipCapacity, ipRefillPerMinute, maxKeys, meterRegistry, System::nanoTime);
+    }
+
+    public LoginRateLimiter(int usernameCapacity, int usernameRefillPerMinute, int ipCapacity, int ipRefillPerMinute,
+                            int maxKeys, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.usernameLimit = new Limit(usernameCapacity, usernameRefillPerMinute);
+        this.ipLimit = new Limit(ipCapacity, ipRefillPerMinute);
+        this.nanoTime = nanoTime;
+        this.usernameBuckets = buckets(usernameLimit, maxKeys, nanoTime);
+        this.ipBuckets = buckets(ipLimit, maxKeys, nanoTime);
+
+        this.allowed = Counter.builder("security.login.rate.allowed")
+                .description("Sign-in attempts let through by the rate limiter")
+                .register(meterRegistry);
+        this.limitedByUsername = Counter.builder("security.login.rate.limited")
+                .tag("key", "username")
+                .description("Sign-in attempts refused before password hashing")
+                .register(meterRegistry);
+        this.limitedByIp = Counter.builder("security.login.rate.limited")
+                .tag("key", "ip")
+                .description("Sign-in attempts refused before password hashing")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String username, String clientIp) {
+        long now = nanoTime.getAsLong();
+
+        long wait = acquire(ipBuckets, String.valueOf(clientIp), ipLimit, now);
+        if (wait > 0) {
+            limitedByIp.increment();
+            throw tooManyAttempts(wait);
+        }
+
+        wait = acquire(usernameBuckets, username.toLowerCase(Locale.ROOT), usernameLimit, now);
+        if (wait > 0) {
+            limitedByUsername.increment();
+            throw tooManyAttempts(wait);
+        }
+        allowed.increment();
+    }
+
+    private long acquire(Cache<String, AtomicLong> buckets, String key, Limit limit, long now) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long arrival = bucket.get();
+            long base = arrival - now > 0 ? arrival : now;
+            long debt = base - now;
+            if (debt > limit.tolerance()) return debt - limit.tolerance();
+            if (bucket.compareAndSet(arrival, base + limit.interval())) return 0;
+        }
+    }
+
+    // A bucket left alone for its whole refill time is full again, forgetting it changes nothing.
+    // Past max-keys Caffeine evicts in amortized batches, a flood of new keys never scans the map
+    private static Cache<String, AtomicLong> buckets(Limit limit, int maxKeys, LongSupplier nanoTime) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(limit.tolerance() + limit.interval()))
+                .ticker(nanoTime::getAsLong)
+                .build();
+    }
+
+    private static TooManyRequestsException tooManyAttempts(long waitNanos) {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        return new TooManyRequestsException("Too many sign-in attempts, try again later!", retryAfterSeconds);
+    }
+
+    private record Limit(long interval, long tolerance) {
+        Limit(int capacity, int refillPerMinute) {
+            this(TimeUnit.MINUTES.toNanos(1) / refillPerMinute,
+                    TimeUnit.MINUTES.toNanos(1) / refillPerMinute * (capacity - 1));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package br.com.erudio.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.Serializable;
+import java.util.List;
+
+public record UserDetailsSnapshot(
+        String username,
+        String password,
+        boolean accountNonExpired,
+        boolean accountNonLocked,
+        boolean credentialsNonExpired,
+        boolean enabled,
+        List<GrantedAuthority> authorities) implements UserDetails, Serializable {
+
+    public UserDetailsSnapshot {
+        authorities = List.copyOf(authorities);
+    }
+
+    public static UserDetailsSnapshot of(UserDetails user) {
+        return new UserDetailsSnapshot(
+                user.getUsername(),
+                user.getPassword(),
+                user.isAccountNonExpired(),
+                user.isAccountNonLocked(),
+                user.isCredentialsNonExpired(),
+                user.isEnabled(),
+                user.getAuthorities().stream()
+                        .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority.getAuthority()))
+                        .toList());
+    }
+
+    public List<String> getRoles() {
+        return authorities.stream().map(GrantedAuthority::getAuthority).toList();
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return accountNonExpired;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return accountNonLocked;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return credentialsNonExpired;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.erudio.security;
+
+import br.com.erudio.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class UserStatusCache {
+
+    private final UserRepository repository;
+
+    // Bounded by max-size with amortized eviction, a full cache still takes new users in
+    private final Cache<String, Boolean> statuses;
+
+    public UserStatusCache(
+            UserRepository repository,
+            @Value("${security.jwt.user-status-cache.ttl-millis:30000}") long ttlMillis,
+            @Value("${security.jwt.user-status-cache.max-size:10000}") int maxSize) {
+        this(repository, ttlMillis, maxSize, Clock.systemUTC());
+    }
+
+    public UserStatusCache(UserRepository repository, long ttlMillis, int maxSize, Clock clock) {
+        this.repository = repository;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    public boolean isActive(String username) {
+        // Unknown users are cached as inactive too, so a deleted account cannot force a query per request
+        return statuses.get(username, key -> Boolean.TRUE.equals(repository.isActive(key)));
+    }
+
+    public void invalidate(String username) {
+        statuses.invalidate(username);
+    }
+}
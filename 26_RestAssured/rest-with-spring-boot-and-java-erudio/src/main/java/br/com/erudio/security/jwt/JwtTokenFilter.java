@@ -1,33 +1,78 @@
 package br.com.erudio.security.jwt;
 
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
-import jakarta.servlet.ServletRequest;
-import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
-public class JwtTokenFilter extends GenericFilterBean {
+public class JwtTokenFilter extends OncePerRequestFilter {
 
-    @Autowired
-    private JwtTokenProvider tokenProvider;
+    private final JwtTokenProvider tokenProvider;
 
-    public JwtTokenFilter(JwtTokenProvider tokenProvider) {
+    private final List<PathPattern> publicPaths;
+
+    private final Counter skippedWithToken;
+    private final Counter skippedWithoutToken;
+
+    public JwtTokenFilter(JwtTokenProvider tokenProvider, MeterRegistry meterRegistry, String... publicPaths) {
         this.tokenProvider = tokenProvider;
+        this.publicPaths = Arrays.stream(publicPaths).map(PathPatternParser.defaultInstance::parse).toList();
+        this.skippedWithToken = Counter.builder("security.jwt.filter.skipped")
+                .tag("token", "present")
+                .description("Requests to public paths that skipped JWT verification")
+                .register(meterRegistry);
+        this.skippedWithoutToken = Counter.builder("security.jwt.filter.skipped")
+                .tag("token", "absent")
+                .description("Requests to public paths that skipped JWT verification")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (PathPattern pattern : publicPaths) {
+            if (pattern.matches(path)) {
+                if (request.getHeader(HttpHeaders.AUTHORIZATION) != null) skippedWithToken.increment();
+                else skippedWithoutToken.increment();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Stateless sessions keep no context between dispatches, streamed exports and error pages need it rebuilt
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected boolean shouldNotFilterErrorDispatch() {
+        return false;
     }
 
     @Override
-    public void doFilter(ServletRequest request, ServletResponse response, FilterChain filter) throws IOException, ServletException {
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filter) throws ServletException, IOException {
 
-        var token = tokenProvider.resolveToken((HttpServletRequest) request);
-        if (StringUtils.isNotBlank(token) && tokenProvider.validateToken(token)) {
-            Authentication authentication = tokenProvider.getAuthentication(token);
+        var token = tokenProvider.resolveToken(request);
+        if (StringUtils.isNotBlank(token)) {
+            DecodedJWT decodedJWT = tokenProvider.verifyToken(token);
+            Authentication authentication = tokenProvider.getAuthentication(decodedJWT);
             if (authentication != null) {
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
@@ -2,6 +2,7 @@ package br.com.erudio.security.jwt;
 
 import br.com.erudio.data.dto.security.TokenDTO;
 import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.security.UserStatusCache;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
@@ -13,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -21,6 +23,7 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class JwtTokenProvider {
@@ -31,15 +34,41 @@ public class JwtTokenProvider {
     @Value("${security.jwt.token.expire-length:3600000}")
     private long validityInMilliseconds = 3600000;
 
+    @Value("${security.jwt.token.verified-cache.enabled:false}")
+    private boolean verifiedCacheEnabled;
+
+    @Value("${security.jwt.token.verified-cache.max-size:10000}")
+    private int verifiedCacheMaxSize = 10000;
+
+    @Value("${security.jwt.token.stateless-authentication:false}")
+    private boolean statelessAuthentication;
+
+    @Value("${security.jwt.refresh-rotation.enabled:false}")
+    private boolean refreshRotationEnabled;
+
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private UserStatusCache userStatusCache;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
     Algorithm algorithm = null;
 
+    private JWTVerifier verifier;
+
+    private VerifiedTokenCache verifiedTokens;
+
     @PostConstruct
     protected void init() {
         secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
         algorithm = Algorithm.HMAC256(secretKey.getBytes());
+        verifier = JWT.require(algorithm).build();
+        if (verifiedCacheEnabled) {
+            verifiedTokens = new VerifiedTokenCache(verifiedCacheMaxSize);
+        }
     }
 
     public TokenDTO createAccessToken(String username, List<String> roles) {
@@ -55,8 +84,8 @@ public class JwtTokenProvider {
         if (refreshTokenContainsBearer(refreshToken)) {
             token = refreshToken.substring("Bearer ".length());
         }
-        JWTVerifier verifier = JWT.require(algorithm).build();
         DecodedJWT decodedJWT = verifier.verify(token);
+        if (refreshRotationEnabled) consumeRefreshToken(decodedJWT);
 
         String username = decodedJWT.getSubject();
         List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -64,6 +93,21 @@ public class JwtTokenProvider {
     }
 
 
+    private void consumeRefreshToken(DecodedJWT decodedJWT) {
+        String jti = decodedJWT.getId();
+        if (jti == null || !refreshTokenStore.consume(parseJti(jti), decodedJWT.getExpiresAt().getTime())) {
+            throw new InvalidJwtAuthenticationException("Refresh token was already used or revoked!");
+        }
+    }
+
+    private static UUID parseJti(String jti) {
+        try {
+            return UUID.fromString(jti);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidJwtAuthenticationException("Invalid refresh token id!");
+        }
+    }
+
     private String getAccessToken(String username, List<String> roles, Date now, Date validity) {
         String issuerUrl = ServletUriComponentsBuilder.fromCurrentContextPath().build().toUriString();
         return JWT.create()
@@ -76,27 +120,49 @@ public class JwtTokenProvider {
     }
 
     private String getRefreshToken(String username, List<String> roles, Date now) {
-        Date refreshTokenValidity = new Date(now.getTime() + (validityInMilliseconds * 3));
-        return JWT.create()
+        // Truncated to the whole second the exp claim will carry, which is what consume later sees
+        Date refreshTokenValidity = new Date((now.getTime() + (validityInMilliseconds * 3)) / 1000 * 1000);
+        var builder = JWT.create()
                 .withClaim("roles", roles)
                 .withIssuedAt(now)
                 .withExpiresAt(refreshTokenValidity)
-                .withSubject(username)
-                .sign(algorithm);
+                .withSubject(username);
+        if (refreshRotationEnabled) {
+            UUID jti = UUID.randomUUID();
+            refreshTokenStore.register(jti, refreshTokenValidity.getTime());
+            builder.withJWTId(jti.toString());
+        }
+        return builder.sign(algorithm);
     }
 
-    public Authentication getAuthentication(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
+    public Authentication getAuthentication(DecodedJWT decodedJWT) {
+        if (statelessAuthentication) return getClaimsAuthentication(decodedJWT);
+
         UserDetails userDetails = this.userDetailsService
                 .loadUserByUsername(decodedJWT.getSubject());
         return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
     }
 
-    private DecodedJWT decodedToken(String token) {
+    private Authentication getClaimsAuthentication(DecodedJWT decodedJWT) {
+        String username = decodedJWT.getSubject();
+        if (username == null || !userStatusCache.isActive(username)) return null;
 
-        Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-        JWTVerifier verifier = JWT.require(alg).build();
-        DecodedJWT decodedJWT = verifier.verify(token);
+        List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+        UserDetails userDetails = User.withUsername(username)
+                .password("")
+                .authorities(roles == null ? new String[0] : roles.toArray(String[]::new))
+                .build();
+        return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
+    }
+
+    public DecodedJWT verifyToken(String token) {
+        if (verifiedTokens == null) return verifier.verify(token);
+
+        DecodedJWT decodedJWT = verifiedTokens.get(token);
+        if (decodedJWT == null) {
+            decodedJWT = verifier.verify(token);
+            verifiedTokens.put(token, decodedJWT);
+        }
         return decodedJWT;
     }
 
@@ -108,18 +174,6 @@ public class JwtTokenProvider {
         return null;
     }
 
-    public boolean validateToken(String token) {
-        DecodedJWT decodedJWT = decodedToken(token);
-        try {
-            if (decodedJWT.getExpiresAt().before(new Date())) {
-                return false;
-            }
-            return true;
-        } catch (Exception e) {
-            throw new InvalidJwtAuthenticationException("Expired or Invalid JWT Token");
-        }
-    }
-
     private static boolean refreshTokenContainsBearer(String refreshToken) {
         return StringUtils.isNotBlank(refreshToken) && refreshToken.startsWith("Bearer ");
     }
@@ -0,0 +1,218 @@
+package br.com.erudio.security.jwt;
+
+import br.com.erudio.repository.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+@Component
+public class RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenStore.class);
+
+    private final long bucketMillis;
+    private final Clock clock;
+
+    // Shared table used when set, so tokens issued by one node can be exchanged on any other and survive restarts
+    private final RefreshTokenRepository repository;
+    private ScheduledExecutorService purger;
+
+    // Ring of expiry buckets, a whole bucket is dropped once every token in it has expired
+    private final AtomicReferenceArray<JtiBucket> buckets;
+
+    @Autowired
+    public RefreshTokenStore(
+            RefreshTokenRepository repository,
+            @Value("${security.jwt.token.expire-length:3600000}") long validityInMilliseconds,
+            @Value("${security.jwt.refresh-rotation.buckets:12}") int bucketCount,
+            @Value("${security.jwt.refresh-rotation.store:database}") String store) {
+        this(validityInMilliseconds * 3, bucketCount, Clock.systemUTC(),
+                "memory".equalsIgnoreCase(store) ? null : repository);
+    }
+
+    public RefreshTokenStore(long refreshValidityMillis, int bucketCount, Clock clock) {
+        this(refreshValidityMillis, bucketCount, clock, null);
+    }
+
+    public RefreshTokenStore(long refreshValidityMillis, int bucketCount, Clock clock, RefreshTokenRepository repository) {
+        this.bucketMillis = Math.max(1, refreshValidityMillis / bucketCount);
+        this.clock = clock;
+        this.repository = repository;
+        this.buckets = new AtomicReferenceArray<>(repository == null ? bucketCount + 2 : 0);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (repository == null) return;
+        purger = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("refresh-token-purge-"));
+        purger.scheduleWithFixedDelay(this::purgeExpired, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void register(UUID jti, long expiresAtMillis) {
+        if (repository != null) {
+            repository.register(jti.toString(), expiresAt(expiresAtMillis));
+            return;
+        }
+        long epoch = epoch(expiresAtMillis);
+        int index = (int) Math.floorMod(epoch, (long) buckets.length());
+        while (true) {
+            JtiBucket bucket = buckets.get(index);
+            if (bucket != null && bucket.epoch == epoch) {
+                bucket.add(jti.getMostSignificantBits(), jti.getLeastSignificantBits());
+                return;
+            }
+            // Never let a late registration evict a newer bucket that still holds live tokens
+            if (bucket != null && bucket.epoch > epoch) {
+                logger.warn("Refresh token {} expiring at {} was not registered, its bucket was already reused", jti, expiresAtMillis);
+                return;
+            }
+            buckets.compareAndSet(index, bucket, new JtiBucket(epoch));
+        }
+    }
+
+    // Removes the token so the same refresh token can never be exchanged twice
+    public boolean consume(UUID jti, long expiresAtMillis) {
+        if (expiresAtMillis <= clock.millis()) return false;
+        if (repository != null) return repository.consume(jti.toString(), clock.instant()) == 1;
+        long epoch = epoch(expiresAtMillis);
+        JtiBucket bucket = buckets.get((int) Math.floorMod(epoch, (long) buckets.length()));
+        return bucket != null && bucket.epoch == epoch
+                && bucket.remove(jti.getMostSignificantBits(), jti.getLeastSignificantBits());
+    }
+
+    // The exp claim is kept in whole seconds, so both sides bucket the expiry truncated the same way
+    private long epoch(long expiresAtMillis) {
+        return expiresAtMillis / 1000 * 1000 / bucketMillis;
+    }
+
+    private static Instant expiresAt(long expiresAtMillis) {
+        return Instant.ofEpochSecond(expiresAtMillis / 1000);
+    }
+
+    public void purgeExpired() {
+        try {
+            int purged = repository.deleteExpired(clock.instant());
+            if (purged > 0) logger.debug("Purged {} expired refresh token(s)", purged);
+        } catch (RuntimeException e) {
+            logger.error("Could not purge expired refresh tokens", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (purger != null) purger.shutdownNow();
+    }
+
+    // Counts at bucket granularity, so a partly expired bucket is still included, the database store keeps no buckets
+    public int size() {
+        long currentEpoch = clock.millis() / bucketMillis;
+        int size = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            JtiBucket bucket = buckets.get(i);
+            if (bucket != null && bucket.epoch >= currentEpoch) size += bucket.size();
+        }
+        return size;
+    }
+
+    // Open addressing over (msb, lsb) pairs, random UUIDs never have a zero msb so it marks free slots
+    private static final class JtiBucket {
+
+        private static final long TOMBSTONE = -1L;
+
+        private final long epoch;
+        private long[] slots = new long[2 * 64];
+        private int size;
+        private int used;
+
+        JtiBucket(long epoch) {
+            this.epoch = epoch;
+        }
+
+        synchronized void add(long msb, long lsb) {
+            if ((used + 1) * 2 > capacity()) resize();
+            int mask = capacity() - 1;
+            int tombstone = -1;
+            for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+                long slotMsb = slots[2 * i];
+                long slotLsb = slots[2 * i + 1];
+                if (slotMsb == 0 && slotLsb == 0) {
+                    int target = tombstone >= 0 ? tombstone : i;
+                    if (tombstone < 0) used++;
+                    slots[2 * target] = msb;
+                    slots[2 * target + 1] = lsb;
+                    size++;
+                    return;
+                }
+                if (slotMsb == 0 && slotLsb == TOMBSTONE) {
+                    if (tombstone < 0) tombstone = i;
+                } else if (slotMsb == msb && slotLsb == lsb) {
+                    return;
+                }
+            }
+        }
+
+        synchronized boolean remove(long msb, long lsb) {
+            int mask = capacity() - 1;
+            for (int i = hash(msb, lsb) & mask; ; i = (i + 1) & mask) {
+                long slotMsb = slots[2 * i];
+                long slotLsb = slots[2 * i + 1];
+                if (slotMsb == 0 && slotLsb == 0) return false;
+                if (slotMsb == msb && slotLsb == lsb) {
+                    slots[2 * i] = 0;
+                    slots[2 * i + 1] = TOMBSTONE;
+                    size--;
+                    return true;
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private int capacity() {
+            return slots.length / 2;
+        }
+
+        private void resize() {
+            long[] old = slots;
+            int newCapacity = size * 2 >= capacity() / 2 ? capacity() * 2 : capacity();
+            slots = new long[2 * newCapacity];
+            size = 0;
+            used = 0;
+            int mask = newCapacity - 1;
+            for (int j = 0; j < old.length; j += 2) {
+                long msb = old[j];
+                if (msb == 0) continue;
+                long lsb = old[j + 1];
+                int i = hash(msb, lsb) & mask;
+                while (slots[2 * i] != 0) i = (i + 1) & mask;
+                slots[2 * i] = msb;
+                slots[2 * i + 1] = lsb;
+                size++;
+                used++;
+            }
+        }
+
+        private static int hash(long msb, long lsb) {
+            long h = msb ^ lsb;
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return (int) h;
+        }
+    }
+}
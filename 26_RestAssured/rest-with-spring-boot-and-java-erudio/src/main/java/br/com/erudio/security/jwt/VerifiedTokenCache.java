@@ -0,0 +1,75 @@
+package br.com.erudio.security.jwt;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+public class VerifiedTokenCache {
+
+    // Keyed by a SHA-256 digest so the bearer tokens themselves are never kept in memory,
+    // each entry lives until the exp claim of its token
+    private final Cache<String, DecodedJWT> tokens;
+    private final Clock clock;
+
+    public VerifiedTokenCache(int maxSize) {
+        this(maxSize, Clock.systemUTC());
+    }
+
+    public VerifiedTokenCache(int maxSize, Clock clock) {
+        this.clock = clock;
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiresAt(clock))
+                .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+                .build();
+    }
+
+    public DecodedJWT get(String token) {
+        return tokens.getIfPresent(digest(token));
+    }
+
+    public void put(String token, DecodedJWT decodedJWT) {
+        if (decodedJWT.getExpiresAt() == null || decodedJWT.getExpiresAt().getTime() <= clock.millis()) return;
+        tokens.put(digest(token), decodedJWT);
+    }
+
+    public long size() {
+        tokens.cleanUp();
+        return tokens.estimatedSize();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record UntilExpiresAt(Clock clock) implements Expiry<String, DecodedJWT> {
+
+        @Override
+        public long expireAfterCreate(String key, DecodedJWT decodedJWT, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(decodedJWT.getExpiresAt().getTime() - clock.millis());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, DecodedJWT decodedJWT, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, decodedJWT, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, DecodedJWT decodedJWT, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import br.com.erudio.data.dto.security.TokenDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.model.User;
 import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.UserDetailsSnapshot;
+import br.com.erudio.security.UserStatusCache;
 import br.com.erudio.security.jwt.JwtTokenProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,14 +15,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
-
 @Service
 public class AuthService {
 
@@ -35,18 +32,27 @@ public class AuthService {
     @Autowired
     private UserRepository repository;
 
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserStatusCache userStatusCache;
+
 
     public ResponseEntity<TokenDTO> signIn(AccountCredentialsDTO credentials) {
-        authenticationManager.authenticate(
+        var authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         credentials.getUsername(),
                         credentials.getPassword()
                 )
         );
 
-        var user = repository.findByUsername(credentials.getUsername());
-
-        if (user == null) throw new UsernameNotFoundException("Username " + credentials.getUsername() + " not found");
+        if (!(authentication.getPrincipal() instanceof UserDetailsSnapshot user)) {
+            throw new UsernameNotFoundException("Username " + credentials.getUsername() + " not found");
+        }
 
         var token = tokenProvider.createAccessToken(
                 credentials.getUsername(),
@@ -57,13 +63,8 @@ public class AuthService {
     }
 
     public ResponseEntity<TokenDTO> refreshToken(String username, String refreshToken) {
-        var user = repository.findByUsername(username);
-        TokenDTO token;
-        if (user != null) {
-            token = tokenProvider.refreshToken(refreshToken);
-        } else {
-            throw new UsernameNotFoundException("Username " + username + " not found");
-        }
+        userService.loadUserByUsername(username);
+        TokenDTO token = tokenProvider.refreshToken(refreshToken);
         return ResponseEntity.ok(token);
     }
 
@@ -83,23 +84,14 @@ public class AuthService {
         entity.setEnabled(true);
 
         var dto = repository.save(entity);
+        userService.evict(dto.getUsername());
+        userStatusCache.invalidate(dto.getUsername());
         return new AccountCredentialsDTO(dto.getUsername(), dto.getPassword(), dto.getFullName());
 
     }
 
 
     private String generateHashedPassword(String password) {
-
-        PasswordEncoder pbkdf2Encoder = new Pbkdf2PasswordEncoder("", 8, 185000,
-                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
-
-        Map<String, PasswordEncoder> encoders = new HashMap<>();
-        encoders.put("pbkdf2", pbkdf2Encoder);
-        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder("pbkdf2", encoders);
-
-        passwordEncoder.setDefaultPasswordEncoderForMatches(pbkdf2Encoder);
         return passwordEncoder.encode(password);
-
-
     }
 }
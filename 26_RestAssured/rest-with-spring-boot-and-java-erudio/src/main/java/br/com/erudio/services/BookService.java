@@ -2,21 +2,31 @@ package br.com.erudio.services;
 
 import br.com.erudio.controllers.BookController;
 import br.com.erudio.data.dto.BookDTO;
+import br.com.erudio.exception.BadRequestException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
+import br.com.erudio.hateoas.KeysetCursor;
+import br.com.erudio.hateoas.LinkTemplateCache;
 import br.com.erudio.model.Book;
 import br.com.erudio.repository.BookRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static br.com.erudio.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -32,6 +42,8 @@ public class BookService {
     @Autowired
     PagedResourcesAssembler<BookDTO> assembler;
 
+    private final LinkTemplateCache bookLinks = new LinkTemplateCache(BookController.class, this::buildBookLinks);
+
     public PagedModel<EntityModel<BookDTO>> findAll(Pageable pageable) {
         logger.info("Finding all books!");
 
@@ -50,6 +62,46 @@ public class BookService {
         return assembler.toModel(booksWithLinks, findAllLink);
     }
 
+    // Keyset pagination: seeks past the (title, id) of the cursor, so no page costs an OFFSET scan or a COUNT
+    public CollectionModel<EntityModel<BookDTO>> scroll(String cursor, int size, Sort.Direction direction) {
+        logger.info("Scrolling books!");
+
+        if (size < 1) throw new BadRequestException("Page size must be greater than zero!");
+
+        var position = cursor == null ? null : KeysetCursor.decode(cursor);
+        var sortDirection = position == null ? direction : position.direction();
+        // One extra row tells whether a next page exists
+        var limit = PageRequest.ofSize(size + 1);
+
+        List<Book> books;
+        if (position == null) {
+            books = bookRepository.findAllBy(limit.withSort(Sort.by(sortDirection, "title", "id")));
+        } else if (sortDirection.isAscending()) {
+            books = bookRepository.findPageAfter(position.key(), position.id(), limit);
+        } else {
+            books = bookRepository.findPageBefore(position.key(), position.id(), limit);
+        }
+
+        boolean hasNext = books.size() > size;
+        if (hasNext) books = books.subList(0, size);
+
+        var content = books.stream().map(book -> {
+            var dto = parseObject(book, BookDTO.class);
+            addHateoasLinks(dto);
+            return EntityModel.of(dto);
+        }).toList();
+
+        String directionParam = sortDirection.name().toLowerCase();
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(BookController.class).scroll(size, directionParam, cursor)).withSelfRel());
+        if (hasNext) {
+            Book last = books.get(books.size() - 1);
+            String next = new KeysetCursor(sortDirection, last.getTitle(), last.getId()).encode();
+            links.add(linkTo(methodOn(BookController.class).scroll(size, directionParam, next)).withRel(IanaLinkRelations.NEXT));
+        }
+        return CollectionModel.of(content, links);
+    }
+
     public BookDTO findById(Long id) {
         logger.info("Finding one book!");
 
@@ -98,11 +150,17 @@ public class BookService {
     }
 
     private void addHateoasLinks(BookDTO dto) {
-        dto.add(linkTo(methodOn(BookController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(BookController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
-        dto.add(linkTo(methodOn(BookController.class).create(dto)).withRel("create").withType("POST"));
-        dto.add(linkTo(methodOn(BookController.class).update(dto)).withRel("update").withType("PUT"));
+        dto.add(bookLinks.expand(dto.getId()));
+    }
+
+    private List<Link> buildBookLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(BookController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(BookController.class).delete(id)).withRel("delete").withType("DELETE"),
+                linkTo(methodOn(BookController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(BookController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(BookController.class).update(null)).withRel("update").withType("PUT")
+        );
     }
 
 }
@@ -1,59 +1,48 @@
 package br.com.erudio.services;
 
-import br.com.erudio.config.EmailConfig;
+import br.com.erudio.data.dto.EmailDeliveryDTO;
 import br.com.erudio.data.dto.request.EmailRequestDTO;
-import br.com.erudio.mail.EmailSender;
+import br.com.erudio.mail.EmailMessage;
+import br.com.erudio.mail.EmailOutbox;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
-import java.io.IOException;
+import java.util.UUID;
 
 @Service
 public class EmailService {
 
+    private static final String QUEUED = "QUEUED";
+
     @Autowired
-    private EmailSender emailSender;
+    private EmailOutbox outbox;
 
     @Autowired
-    private EmailConfig emailConfig;
+    private ObjectMapper objectMapper;
 
-    public void sendSimpleEmail(EmailRequestDTO emailRequest) {
-        emailSender
-                .to(emailRequest.getTo())
-                .withSubject(emailRequest.getSubject())
-                .withMessage(emailRequest.getBody())
-                .send(emailConfig);
+    public EmailDeliveryDTO sendSimpleEmail(EmailRequestDTO emailRequest) {
+        UUID deliveryId = outbox.add(toMessage(emailRequest), null);
+        return new EmailDeliveryDTO(deliveryId, QUEUED);
     }
 
-    public void sendEmailWithAttachment(String emailRequestJson, MultipartFile attachment) {
-
-        EmailRequestDTO emailRequest = null;
-        File tempFile = null;
-
+    public EmailDeliveryDTO sendEmailWithAttachment(String emailRequestJson, MultipartFile attachment) {
         try {
-            emailRequest = new ObjectMapper().readValue(emailRequestJson, EmailRequestDTO.class);
-            tempFile = File.createTempFile("attachment", attachment.getOriginalFilename());
-            attachment.transferTo(tempFile);
-
-            emailSender
-                    .to(emailRequest.getTo())
-                    .withSubject(emailRequest.getSubject())
-                    .withMessage(emailRequest.getBody())
-                    .attach(tempFile.getAbsolutePath())
-                    .send(emailConfig);
-
+            EmailRequestDTO emailRequest = objectMapper.readValue(emailRequestJson, EmailRequestDTO.class);
+            UUID deliveryId = outbox.add(toMessage(emailRequest), attachment);
+            return new EmailDeliveryDTO(deliveryId, QUEUED);
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error parsing email request JSON", e);
-        } catch (IOException e) {
-            throw new RuntimeException("Error processing the attachment", e);
-        } finally {
-            if (tempFile != null && tempFile.exists()) tempFile.delete();
         }
     }
 
-
+    private EmailMessage toMessage(EmailRequestDTO emailRequest) {
+        return EmailMessage.builder()
+                .to(emailRequest.getTo())
+                .withSubject(emailRequest.getSubject())
+                .withMessage(emailRequest.getBody())
+                .build();
+    }
 }
@@ -1,35 +1,62 @@
 package br.com.erudio.services;
 
 import br.com.erudio.controllers.PersonController;
+import br.com.erudio.data.dto.ImportSummaryDTO;
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.exception.BadRequestException;
 import br.com.erudio.exception.FileStorageException;
 import br.com.erudio.exception.RequiredObjectIsNullException;
 import br.com.erudio.exception.ResourceNotFoundException;
 import br.com.erudio.file.exporter.contract.PersonExporter;
+import br.com.erudio.file.exporter.contract.PersonReportExporter;
 import br.com.erudio.file.exporter.factory.FileExporterFactory;
+import br.com.erudio.file.exporter.impl.PdfExporter;
+import br.com.erudio.file.exporter.report.ReportRenderPool;
 import br.com.erudio.file.importer.contract.FileImporter;
+import br.com.erudio.file.importer.contract.PersonRowHandler;
 import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.hateoas.KeysetCursor;
+import br.com.erudio.hateoas.LinkTemplateCache;
 import br.com.erudio.model.Person;
+import br.com.erudio.repository.PageCountCache;
+import br.com.erudio.repository.PersonBatchRepository;
 import br.com.erudio.repository.PersonRepository;
+import br.com.erudio.search.PersonNameIndex;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static br.com.erudio.mapper.ObjectMapper.parseObject;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
@@ -38,11 +65,22 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Service
 public class PersonService {
 
+    private static final int MAX_REPORTED_FAILURES = 1000;
+
     private Logger logger = LoggerFactory.getLogger(PersonService.class.getName());
 
+    @Value("${file.import.chunk-size:1000}")
+    private int importChunkSize = 1000;
+
     @Autowired
     PersonRepository personRepository;
 
+    @Autowired
+    PersonBatchRepository personBatchRepository;
+
+    @Autowired
+    ReportRenderPool renderPool;
+
     @Autowired
     FileImporterFactory importer;
 
@@ -52,36 +90,127 @@ public class PersonService {
     @Autowired
     PagedResourcesAssembler<PersonDTO> assembler;
 
+    @Autowired
+    SlicedResourcesAssembler<PersonDTO> slicedAssembler;
+
+    @Autowired
+    PersonNameIndex nameIndex;
+
+    @Autowired
+    PageCountCache pageCounts;
+
+    private final LinkTemplateCache personLinks = new LinkTemplateCache(PersonController.class, this::buildPersonLinks);
+
     public PagedModel<EntityModel<PersonDTO>> findAll(Pageable pageable) {
         logger.info("Finding all People!");
 
-        var people = personRepository.findAll(pageable);
+        var people = pageCounts.toPage("person:findAll", personRepository.findAllBy(pageable), pageable,
+                personRepository::count, this::estimateCount);
 
         return buildPagedModel(pageable, people);
     }
 
+    // Keyset pagination: seeks past the (firstName, id) of the cursor, so no page costs an OFFSET scan or a COUNT
+    public CollectionModel<EntityModel<PersonDTO>> scroll(String cursor, int size, Sort.Direction direction) {
+        logger.info("Scrolling People!");
+
+        if (size < 1) throw new BadRequestException("Page size must be greater than zero!");
+
+        var position = cursor == null ? null : KeysetCursor.decode(cursor);
+        var sortDirection = position == null ? direction : position.direction();
+        // One extra row tells whether a next page exists
+        var limit = PageRequest.ofSize(size + 1);
+
+        List<Person> people;
+        if (position == null) {
+            people = personRepository.findAllBy(limit.withSort(Sort.by(sortDirection, "firstName", "id")));
+        } else if (sortDirection.isAscending()) {
+            people = personRepository.findPageAfter(position.key(), position.id(), limit);
+        } else {
+            people = personRepository.findPageBefore(position.key(), position.id(), limit);
+        }
+
+        boolean hasNext = people.size() > size;
+        if (hasNext) people = people.subList(0, size);
+
+        var content = people.stream().map(person -> {
+            var dto = parseObject(person, PersonDTO.class);
+            addHateoasLinks(dto);
+            return EntityModel.of(dto);
+        }).toList();
+
+        String directionParam = sortDirection.name().toLowerCase();
+        List<Link> links = new ArrayList<>();
+        links.add(linkTo(methodOn(PersonController.class).scroll(size, directionParam, cursor)).withSelfRel());
+        if (hasNext) {
+            Person last = people.get(people.size() - 1);
+            String next = new KeysetCursor(sortDirection, last.getFirstName(), last.getId()).encode();
+            links.add(linkTo(methodOn(PersonController.class).scroll(size, directionParam, next)).withRel(IanaLinkRelations.NEXT));
+        }
+        return CollectionModel.of(content, links);
+    }
+
     public PagedModel<EntityModel<PersonDTO>> findByName(String firstName, Pageable pageable) {
         logger.info("Finding People by name!");
 
-        var people = personRepository.findPeopleByName(firstName, pageable);
+        if (nameIndex.supports(firstName, pageable)) {
+            var result = nameIndex.search(firstName, pageable);
+            var people = new PageImpl<>(findAllInOrder(result.ids()), pageable, result.total());
+            return buildPagedModel(pageable, people);
+        }
+
+        var people = pageCounts.toPage("person:findByName:" + firstName.toLowerCase(Locale.ROOT),
+                personRepository.findPageOfPeopleByName(firstName, pageable), pageable,
+                () -> personRepository.countPeopleByName(firstName));
 
         return buildPagedModel(pageable, people);
     }
 
-    public Resource exportPerson(Long id, String acceptHeader) {
+    private long estimateCount() {
+        Long estimate = personRepository.estimateCount();
+        return estimate != null ? estimate : personRepository.count();
+    }
+
+    // Only the page picked by the index is loaded, in the order the index returned it
+    private List<Person> findAllInOrder(List<Long> ids) {
+        Map<Long, Person> people = personRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Person::getId, Function.identity()));
+        return ids.stream().map(people::get).filter(Objects::nonNull).toList();
+    }
+
+    public SlicedModel<EntityModel<PersonDTO>> searchByName(String name, String mode, Pageable pageable) {
+        logger.info("Searching People by name!");
+
+        var people = "contains".equalsIgnoreCase(mode)
+                ? personRepository.findSliceOfPeopleByName(name, pageable)
+                : personRepository.findPeopleByNamePrefix(escapeLike(name) + "%", pageable);
+
+        var peopleWithLinks = people.map(person -> {
+            var dto = parseObject(person, PersonDTO.class);
+            addHateoasLinks(dto);
+            return dto;
+        });
+
+        Link selfLink = WebMvcLinkBuilder
+                .linkTo(WebMvcLinkBuilder.methodOn(PersonController.class)
+                        .searchByName(name, pageable.getPageNumber(), pageable.getPageSize(), String.valueOf(pageable.getSort()), mode)).withSelfRel();
+
+        return slicedAssembler.toModel(peopleWithLinks, selfLink);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    public StreamingResponseBody exportPerson(Long id, String acceptHeader) {
         logger.info("Exporting data of one Person!");
 
-        var person = personRepository.findById(id)
+        PersonReportExporter exporter = this.exporter.getReportExporter(acceptHeader);
+        var person = personRepository.findWithBooksById(id)
                 .map(entity -> parseObject(entity, PersonDTO.class))
                 .orElseThrow(() -> new ResourceNotFoundException("No record found for this id"));
 
-        try {
-            PersonExporter exporter = this.exporter.getExporter(acceptHeader);
-            return exporter.exportPerson(person);
-        } catch (Exception e) {
-            throw new RuntimeException("Error during file export!", e);
-        }
-
+        return renderReport(outputStream -> exporter.exportPerson(person, outputStream));
     }
 
     public PersonDTO findById(Long id) {
@@ -94,17 +223,74 @@ public class PersonService {
         return dto;
     }
 
-    public Resource exportPage(Pageable pageable, String acceptHeader) {
+    public StreamingResponseBody exportPage(Pageable pageable, String acceptHeader) {
         logger.info("Exporting a People page!");
 
         var people = personRepository.findAll(pageable).map(person -> parseObject(person, PersonDTO.class)).getContent();
 
+        return exportBody(acceptHeader, (exporter, outputStream) -> exporter.exportPeople(people, outputStream));
+    }
+
+    public StreamingResponseBody exportAll(String acceptHeader) {
+        logger.info("Exporting all People!");
+
+        return exportBody(acceptHeader, (exporter, outputStream) -> personBatchRepository.streamAll(people -> {
+            Iterable<PersonDTO> rows = () -> people.map(this::toExportRow).iterator();
+            exporter.exportPeople(rows, outputStream);
+        }));
+    }
+
+    private PersonDTO toExportRow(Person person) {
+        var dto = parseObject(person, PersonDTO.class);
+        personBatchRepository.detach(person);
+        return dto;
+    }
+
+    private StreamingResponseBody exportBody(String acceptHeader, PersonExport export) {
+        PersonExporter exporter;
         try {
-            PersonExporter exporter = this.exporter.getExporter(acceptHeader);
-            return exporter.exportPeople(people);
+            exporter = this.exporter.getExporter(acceptHeader);
         } catch (Exception e) {
             throw new RuntimeException("Error during file export!", e);
         }
+
+        if (!(exporter instanceof PdfExporter)) {
+            return outputStream -> writeExport(() -> export.write(exporter, outputStream));
+        }
+        return renderReport(outputStream -> export.write(exporter, outputStream));
+    }
+
+    // Reports render on their own bounded pool, a full queue is refused before the response starts
+    private StreamingResponseBody renderReport(ReportRenderPool.StreamTask task) {
+        var report = renderPool.render(task);
+        return outputStream -> writeExport(() -> {
+            var rendered = report.get();
+            try {
+                rendered.writeTo(outputStream);
+            } finally {
+                rendered.discard();
+            }
+        });
+    }
+
+    private void writeExport(ExportTask task) throws IOException {
+        try {
+            task.run();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Error during file export!", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface PersonExport {
+        void write(PersonExporter exporter, OutputStream outputStream) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface ExportTask {
+        void run() throws Exception;
     }
 
     public PersonDTO create(PersonDTO person) {
@@ -112,8 +298,10 @@ public class PersonService {
         if (person == null) throw new RequiredObjectIsNullException();
 
         logger.info("Creating one Person");
-        var entity = parseObject(person, Person.class);
-        var dto = parseObject(personRepository.save(entity), PersonDTO.class);
+        var entity = personRepository.save(parseObject(person, Person.class));
+        nameIndex.put(entity.getId(), entity.getFirstName());
+        pageCounts.invalidateAll();
+        var dto = parseObject(entity, PersonDTO.class);
         addHateoasLinks(dto);
         return dto;
     }
@@ -128,9 +316,11 @@ public class PersonService {
                     .orElseThrow(() -> new BadRequestException("File name cannot be null"));
             FileImporter importer = this.importer.getImporter(filename);
 
-            List<Person> entities = importer.importFile(inputStream).stream()
-                    .map(dto -> personRepository.save(parseObject(dto, Person.class)))
-                    .toList();
+            List<Person> entities = personRepository.saveAll(importer.importFile(inputStream).stream()
+                    .map(dto -> parseObject(dto, Person.class))
+                    .toList());
+            entities.forEach(entity -> nameIndex.put(entity.getId(), entity.getFirstName()));
+            pageCounts.invalidateAll();
 
             return entities.stream().map(entity -> {
                 var dto = parseObject(entity, PersonDTO.class);
@@ -142,6 +332,33 @@ public class PersonService {
         }
     }
 
+    public ImportSummaryDTO streamMassCreation(MultipartFile file) {
+        logger.info("Streaming People import from file!");
+
+        if (file.isEmpty()) throw new BadRequestException("Please set a Valid File!");
+
+        long start = System.nanoTime();
+        try (InputStream inputStream = file.getInputStream()) {
+            String filename = Optional.ofNullable(file.getOriginalFilename())
+                    .orElseThrow(() -> new BadRequestException("File name cannot be null"));
+            FileImporter importer = this.importer.getImporter(filename);
+
+            ChunkedPersonWriter writer = new ChunkedPersonWriter(importChunkSize);
+            importer.importFile(inputStream, writer);
+            writer.flush();
+            pageCounts.invalidateAll();
+
+            ImportSummaryDTO summary = writer.summary;
+            summary.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+            logger.info("Imported {} of {} People in {} ms", summary.getImportedRows(), summary.getTotalRows(), summary.getElapsedMillis());
+            return summary;
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new FileStorageException("Error processing the file!", e);
+        }
+    }
+
     public PersonDTO update(PersonDTO person) {
 
         if (person == null) throw new RequiredObjectIsNullException();
@@ -155,7 +372,11 @@ public class PersonService {
         entity.setAddress(person.getAddress());
         entity.setGender(person.getGender());
 
-        var dto = parseObject(personRepository.save(entity), PersonDTO.class);
+        entity = personRepository.save(entity);
+        nameIndex.put(entity.getId(), entity.getFirstName());
+        // A rename moves the person between name searches
+        pageCounts.invalidateAll();
+        var dto = parseObject(entity, PersonDTO.class);
         addHateoasLinks(dto);
         return dto;
     }
@@ -166,6 +387,8 @@ public class PersonService {
         Person entity = personRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("No record found for this id"));
 
         personRepository.delete(entity);
+        nameIndex.remove(id);
+        pageCounts.invalidateAll();
     }
 
     @Transactional
@@ -177,6 +400,7 @@ public class PersonService {
         personRepository.disablePerson(id);
 
         var entity = personRepository.findById(id).get();
+        nameIndex.put(entity.getId(), entity.getFirstName());
 
         var dto = parseObject(entity, PersonDTO.class);
         addHateoasLinks(dto);
@@ -198,16 +422,77 @@ public class PersonService {
     }
 
     private void addHateoasLinks(PersonDTO dto) {
-        dto.add(linkTo(methodOn(PersonController.class).findById(dto.getId())).withSelfRel().withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).delete(dto.getId())).withRel("delete").withType("DELETE"));
-        dto.add(linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"));
-        dto.add(linkTo(methodOn(PersonController.class).create(dto)).withRel("create").withType("POST"));
-        dto.add(linkTo(methodOn(PersonController.class)).slash("massCreation").withRel("massCreation").withType("POST"));
-        dto.add(linkTo(methodOn(PersonController.class).update(dto)).withRel("update").withType("PUT"));
-        dto.add(linkTo(methodOn(PersonController.class).disablePerson(dto.getId())).withRel("disable").withType("PATCH"));
-        dto.add(linkTo(methodOn(PersonController.class).exportPage(
-                1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export People")
+        dto.add(personLinks.expand(dto.getId()));
+    }
+
+    private List<Link> buildPersonLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).delete(id)).withRel("delete").withType("DELETE"),
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"),
+                linkTo(methodOn(PersonController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(PersonController.class)).slash("massCreation").withRel("massCreation").withType("POST"),
+                linkTo(methodOn(PersonController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).exportPage(
+                        1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export People")
         );
     }
+
+    private class ChunkedPersonWriter implements PersonRowHandler {
+
+        private final int chunkSize;
+        private final List<Person> chunk;
+        private final long[] rowNumbers;
+        private final ImportSummaryDTO summary = new ImportSummaryDTO();
+
+        ChunkedPersonWriter(int chunkSize) {
+            this.chunkSize = Math.max(1, chunkSize);
+            this.chunk = new ArrayList<>(this.chunkSize);
+            this.rowNumbers = new long[this.chunkSize];
+        }
+
+        @Override
+        public void onRow(long rowNumber, PersonDTO person) {
+            summary.setTotalRows(summary.getTotalRows() + 1);
+            rowNumbers[chunk.size()] = rowNumber;
+            chunk.add(parseObject(person, Person.class));
+            if (chunk.size() == chunkSize) flush();
+        }
+
+        @Override
+        public void onInvalidRow(long rowNumber, Exception cause) {
+            summary.setTotalRows(summary.getTotalRows() + 1);
+            fail(rowNumber);
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            try {
+                personBatchRepository.insertAll(chunk);
+                chunk.forEach(person -> nameIndex.put(person.getId(), person.getFirstName()));
+                summary.setImportedRows(summary.getImportedRows() + chunk.size());
+            } catch (DataAccessException e) {
+                logger.warn("Batch insert failed, retrying {} rows one by one", chunk.size(), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        personBatchRepository.insertAll(List.of(chunk.get(i)));
+                        nameIndex.put(chunk.get(i).getId(), chunk.get(i).getFirstName());
+                        summary.setImportedRows(summary.getImportedRows() + 1);
+                    } catch (DataAccessException rowException) {
+                        fail(rowNumbers[i]);
+                    }
+                }
+            }
+            chunk.clear();
+        }
+
+        private void fail(long rowNumber) {
+            summary.setFailedRows(summary.getFailedRows() + 1);
+            if (summary.getFailedRowNumbers().size() < MAX_REPORTED_FAILURES) {
+                summary.getFailedRowNumbers().add(rowNumber);
+            }
+        }
+    }
 }
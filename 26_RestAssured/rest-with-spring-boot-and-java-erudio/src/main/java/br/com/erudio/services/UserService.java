@@ -1,26 +1,68 @@
 package br.com.erudio.services;
 
 import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.UserDetailsSnapshot;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Service
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     UserRepository repository;
 
-    public UserService(UserRepository repository) {
+    private final Cache<String, UserDetailsSnapshot> users;
+
+    @Autowired
+    public UserService(
+            UserRepository repository,
+            @Value("${security.user-details-cache.ttl-seconds:300}") long ttlSeconds,
+            @Value("${security.user-details-cache.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        var user = repository.findByUsername(username);
+        var user = users.get(username, this::findUser);
         if (user != null) return user;
         else throw new UsernameNotFoundException("Username " + username + "not found!");
     }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        var entity = repository.findByUsername(user.getUsername());
+        if (entity == null) return user;
+
+        entity.setPassword(newPassword);
+        repository.save(entity);
+        users.invalidate(user.getUsername());
+        return UserDetailsSnapshot.of(entity);
+    }
+
+    public void evict(String username) {
+        users.invalidate(username);
+    }
+
+    private UserDetailsSnapshot findUser(String username) {
+        var user = repository.findByUsername(username);
+        return user != null ? UserDetailsSnapshot.of(user) : null;
+    }
 }
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS `id_generator` (
+  `sequence_name` varchar(64) NOT NULL,
+  `next_val` bigint(20) NOT NULL,
+  PRIMARY KEY (`sequence_name`)
+) ENGINE=InnoDB;
+
+INSERT INTO `id_generator` (`sequence_name`, `next_val`)
+  SELECT 'person', COALESCE(MAX(`id`), 0) + 50 FROM `person`;
+INSERT INTO `id_generator` (`sequence_name`, `next_val`)
+  SELECT 'books', COALESCE(MAX(`id`), 0) + 50 FROM `books`;
+INSERT INTO `id_generator` (`sequence_name`, `next_val`)
+  SELECT 'users', COALESCE(MAX(`id`), 0) + 50 FROM `users`;
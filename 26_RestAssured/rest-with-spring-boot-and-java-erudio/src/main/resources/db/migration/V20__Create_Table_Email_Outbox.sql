@@ -0,0 +1,19 @@
+CREATE TABLE IF NOT EXISTS `email_outbox` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT,
+  `delivery_id` char(36) NOT NULL,
+  `mail_from` varchar(255) DEFAULT NULL,
+  `mail_to` varchar(1000) NOT NULL,
+  `subject` varchar(255) DEFAULT NULL,
+  `body` mediumtext,
+  `attachment_path` varchar(500) DEFAULT NULL,
+  `status` varchar(10) NOT NULL,
+  `attempts` int(11) NOT NULL DEFAULT 0,
+  `next_attempt_at` datetime(6) NOT NULL,
+  `claimed_by` varchar(100) DEFAULT NULL,
+  `last_error` varchar(1000) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `sent_at` datetime(6) DEFAULT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_email_outbox_delivery_id` (`delivery_id`),
+  KEY `idx_email_outbox_claim` (`status`, `next_attempt_at`)
+) ENGINE=InnoDB;
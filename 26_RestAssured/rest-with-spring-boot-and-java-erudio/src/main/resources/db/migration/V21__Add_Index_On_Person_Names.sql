@@ -0,0 +1,2 @@
+CREATE INDEX `idx_person_first_name` ON `person` (`first_name`);
+CREATE INDEX `idx_person_last_name` ON `person` (`last_name`);
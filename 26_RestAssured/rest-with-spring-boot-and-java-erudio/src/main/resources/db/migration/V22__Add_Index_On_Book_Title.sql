@@ -0,0 +1,2 @@
+ALTER TABLE `books` MODIFY `title` varchar(250) NOT NULL;
+CREATE INDEX `idx_books_title` ON `books` (`title`);
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS `refresh_token` (
+  `jti` char(36) NOT NULL,
+  `expires_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`jti`),
+  KEY `idx_refresh_token_expires_at` (`expires_at`)
+) ENGINE=InnoDB;
@@ -0,0 +1,99 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.security.jwt.JwtTokenFilter;
+import br.com.erudio.security.jwt.JwtTokenProvider;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.JwtTokenFilterBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenFilterBenchmark {
+
+    private static final String SECRET = "53cr37";
+
+    @Param({"false", "true"})
+    public boolean verifiedCache;
+
+    private JwtTokenFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        UserDetails user = User.withUsername("leandro").password("").authorities("ADMIN").build();
+        UserDetailsService userDetailsService = username -> user;
+
+        var provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKey", SECRET);
+        ReflectionTestUtils.setField(provider, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(provider, "verifiedCacheEnabled", verifiedCache);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        filter = new JwtTokenFilter(provider, new SimpleMeterRegistry());
+
+        token = JWT.create()
+                .withClaim("roles", List.of("ADMIN"))
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .withSubject("leandro")
+                .sign((Algorithm) ReflectionTestUtils.getField(provider, "algorithm"));
+
+        request = new MockHttpServletRequest("GET", "/api/person/v1");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Benchmark
+    public DecodedJWT previousDoubleVerification() {
+        // What the filter used to do: build an Algorithm and a JWTVerifier per call, twice per request
+        DecodedJWT decodedJWT = null;
+        for (int i = 0; i < 2; i++) {
+            Algorithm algorithm = Algorithm.HMAC256(Base64.getEncoder().encodeToString(SECRET.getBytes()).getBytes());
+            JWTVerifier verifier = JWT.require(algorithm).build();
+            decodedJWT = verifier.verify(token);
+        }
+        return decodedJWT;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtTokenFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.controllers.PersonController;
+import br.com.erudio.hateoas.LinkTemplateCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.LinkTemplateCacheBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkTemplateCacheBenchmark {
+
+    private LinkTemplateCache cache;
+    private long id;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerPort(8888);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        cache = new LinkTemplateCache(PersonController.class, LinkTemplateCacheBenchmark::buildLinks);
+    }
+
+    @Benchmark
+    public List<Link> methodOnLinks() {
+        return buildLinks(++id);
+    }
+
+    @Benchmark
+    public List<Link> cachedLinks() {
+        return cache.expand(++id);
+    }
+
+    private static List<Link> buildLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).delete(id)).withRel("delete").withType("DELETE"),
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).findByName("", 1, 12, "asc")).withRel("findByName").withType("GET"),
+                linkTo(methodOn(PersonController.class).create(null)).withRel("create").withType("POST"),
+                linkTo(methodOn(PersonController.class)).slash("massCreation").withRel("massCreation").withType("POST"),
+                linkTo(methodOn(PersonController.class).update(null)).withRel("update").withType("PUT"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).exportPage(
+                        1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export People")
+        );
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LinkTemplateCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
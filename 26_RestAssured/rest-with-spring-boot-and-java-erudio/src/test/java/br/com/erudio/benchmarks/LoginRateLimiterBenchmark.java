@@ -0,0 +1,68 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.exception.TooManyRequestsException;
+import br.com.erudio.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Login flood: 8 threads hammering sign-in, most attempts refused before any PBKDF2 work
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.LoginRateLimiterBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class LoginRateLimiterBenchmark {
+
+    private static final int MAX_KEYS = 100000;
+
+    private LoginRateLimiter limiter;
+
+    @Setup
+    public void setUp() {
+        limiter = new LoginRateLimiter(5, 5, 20, 20, MAX_KEYS, new SimpleMeterRegistry(), System::nanoTime);
+    }
+
+    @Benchmark
+    public boolean sameUserFlood() {
+        return attempt("leandro", "10.0.0." + ThreadLocalRandom.current().nextInt(256));
+    }
+
+    @Benchmark
+    public boolean sprayedUsernames() {
+        var random = ThreadLocalRandom.current();
+        return attempt("user" + random.nextInt(50000), "10.0." + random.nextInt(256) + "." + random.nextInt(256));
+    }
+
+    // Every bucket is still live and there are 4x more keys than max-keys, so new keys keep evicting
+    @Benchmark
+    public boolean sprayedUsernamesAboveTheCap() {
+        var random = ThreadLocalRandom.current();
+        return attempt("user" + random.nextInt(4 * MAX_KEYS), "10." + random.nextInt(8) + "." + random.nextInt(256) + "." + random.nextInt(256));
+    }
+
+    private boolean attempt(String username, String clientIp) {
+        try {
+            limiter.checkLogin(username, clientIp);
+            return true;
+        } catch (TooManyRequestsException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(LoginRateLimiterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.data.dto.PersonDTO;
+import br.com.erudio.mapper.ObjectMapper;
+import br.com.erudio.model.Person;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import com.github.dozermapper.core.DozerBeanMapperBuilder;
+import com.github.dozermapper.core.Mapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.ObjectMapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObjectMapperBenchmark {
+
+    private Mapper dozer;
+    private List<Person> page;
+
+    @Setup
+    public void setUp() {
+        dozer = DozerBeanMapperBuilder.buildDefault();
+        page = new MockPerson().mockEntityList().subList(0, 12);
+    }
+
+    @Benchmark
+    public List<PersonDTO> dozerPage() {
+        List<PersonDTO> result = new ArrayList<>(page.size());
+        for (Person person : page) {
+            result.add(dozer.map(person, PersonDTO.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<PersonDTO> generatedPage() {
+        return ObjectMapper.parseListObjects(page, PersonDTO.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ObjectMapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.erudio.benchmarks;
+
+import br.com.erudio.repository.PersonBatchRepository;
+import br.com.erudio.search.PersonName;
+import br.com.erudio.search.PersonNameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+// Autocomplete against 1M synthetic first names, the setup prints the index footprint per million rows
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.PersonNameIndexBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class PersonNameIndexBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final String[] SYLLABLES = {
+            "ka", "lo", "mi", "ne", "ra", "sto", "an", "dre", "li", "sa", "ber", "to", "nik", "ola", "jo", "se",
+            "vi", "tor", "ma", "ria", "lu", "cas", "pe", "dro", "gu", "sta", "vo", "he", "len", "fe", "lip", "ju",
+            "bru", "no", "car", "la", "ed", "uar", "da", "ni", "el", "ra", "fa", "thi", "ago", "be", "at", "riz"};
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "firstName"));
+
+    private PersonNameIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        PersonBatchRepository repository = mock(PersonBatchRepository.class);
+        doAnswer(invocation -> {
+            Consumer<PersonName> consumer = invocation.getArgument(0);
+            Random random = new Random(42);
+            for (long id = 1; id <= ROWS; id++) {
+                consumer.accept(new PersonName(id, randomName(random)));
+            }
+            return null;
+        }).when(repository).streamNames(any());
+
+        index = new PersonNameIndex(repository, true, 0, new SimpleMeterRegistry());
+        index.build();
+        System.out.printf("%n%d names indexed, about %.1f MB per million rows%n",
+                index.size(), index.estimatedBytes() / (index.size() / 1_000_000.0) / (1024 * 1024));
+    }
+
+    @Benchmark
+    public PersonNameIndex.Result selectiveTerm() {
+        return index.search("nikola", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public PersonNameIndex.Result commonTrigram() {
+        return index.search("ola", FIRST_PAGE);
+    }
+
+    @Benchmark
+    public PersonNameIndex.Result singleCharacter() {
+        return index.search("k", FIRST_PAGE);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int syllables = 2 + random.nextInt(3);
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PersonNameIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
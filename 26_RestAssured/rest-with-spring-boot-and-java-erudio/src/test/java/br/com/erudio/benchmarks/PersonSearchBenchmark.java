@@ -0,0 +1,122 @@
+package br.com.erudio.benchmarks;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.testcontainers.containers.MySQLContainer;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Name search over a million generated people: the old contains Page (rows + COUNT) against the indexed prefix Slice
+// Needs Docker for the MySQL container
+// Run with: mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=br.com.erudio.benchmarks.PersonSearchBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE_SIZE = 12;
+
+    private MySQLContainer<?> mysql;
+    private Connection connection;
+
+    private PreparedStatement containsPage;
+    private PreparedStatement containsCount;
+    private PreparedStatement containsSlice;
+    private PreparedStatement prefixSlice;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        mysql = new MySQLContainer<>("mysql:9.1.0");
+        mysql.start();
+        Flyway.configure()
+                .dataSource(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword())
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(mysql.getJdbcUrl(), mysql.getUsername(), mysql.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION cte_max_recursion_depth = " + ROWS);
+            statement.execute("""
+                    INSERT INTO person (first_name, last_name, address, gender, enabled)
+                    WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < %d)
+                    SELECT CONCAT(CHAR(65 + n %% 26), LEFT(MD5(n), 7)),
+                           CONCAT(CHAR(65 + (n DIV 26) %% 26), LEFT(MD5(n * 31), 9)),
+                           'Generated Address', IF(n %% 2 = 0, 'Male', 'Female'), b'1'
+                    FROM seq""".formatted(ROWS));
+            statement.execute("ANALYZE TABLE person");
+        }
+
+        containsPage = connection.prepareStatement(
+                "SELECT * FROM person WHERE first_name LIKE ? ORDER BY first_name LIMIT " + PAGE_SIZE);
+        containsCount = connection.prepareStatement(
+                "SELECT COUNT(*) FROM person WHERE first_name LIKE ?");
+        containsSlice = connection.prepareStatement(
+                "SELECT * FROM person WHERE first_name LIKE ? ORDER BY first_name LIMIT " + (PAGE_SIZE + 1));
+        prefixSlice = connection.prepareStatement(
+                "SELECT * FROM person WHERE first_name LIKE ? ESCAPE '!' OR last_name LIKE ? ESCAPE '!' ORDER BY first_name LIMIT " + (PAGE_SIZE + 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public int containsPageWithCount() throws SQLException {
+        String pattern = "%" + term() + "%";
+        containsPage.setString(1, pattern);
+        containsCount.setString(1, pattern);
+        return drain(containsPage) + drain(containsCount);
+    }
+
+    @Benchmark
+    public int containsSlice() throws SQLException {
+        containsSlice.setString(1, "%" + term() + "%");
+        return drain(containsSlice);
+    }
+
+    @Benchmark
+    public int prefixSlice() throws SQLException {
+        String pattern = term() + "%";
+        prefixSlice.setString(1, pattern);
+        prefixSlice.setString(2, pattern);
+        return drain(prefixSlice);
+    }
+
+    // A letter plus two hex digits matches a few hundred generated names
+    private static String term() {
+        var random = ThreadLocalRandom.current();
+        return (char) ('A' + random.nextInt(26)) + Integer.toHexString(16 + random.nextInt(240));
+    }
+
+    private static int drain(PreparedStatement statement) throws SQLException {
+        int rows = 0;
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) rows++;
+        }
+        return rows;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PersonSearchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
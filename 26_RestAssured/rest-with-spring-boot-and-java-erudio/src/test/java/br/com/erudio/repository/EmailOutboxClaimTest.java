@@ -0,0 +1,136 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.EmailOutboxMessage;
+import br.com.erudio.model.EmailOutboxMessage.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Claims have to commit from their own threads, so nothing here runs inside the test transaction
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailOutboxClaimTest extends AbstractIntegrationTest {
+
+    private static final List<Status> OPEN = List.of(Status.PENDING, Status.SENDING);
+
+    @Autowired
+    EmailOutboxRepository repository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentClaimsSkipEachOthersRows() throws Exception {
+        for (int i = 0; i < 20; i++) repository.save(row());
+        var transaction = new TransactionTemplate(transactionManager);
+        var firstClaimed = new CountDownLatch(1);
+        var secondClaimed = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first claim keeps its rows locked until the second one has claimed too
+            Future<Set<Long>> first = executor.submit(() -> transaction.execute(status -> {
+                Set<Long> ids = claim();
+                firstClaimed.countDown();
+                await(secondClaimed);
+                return ids;
+            }));
+            Future<Set<Long>> second = executor.submit(() -> transaction.execute(status -> {
+                await(firstClaimed);
+                Set<Long> ids = claim();
+                secondClaimed.countDown();
+                return ids;
+            }));
+
+            Set<Long> firstIds = first.get(30, TimeUnit.SECONDS);
+            Set<Long> secondIds = second.get(30, TimeUnit.SECONDS);
+
+            assertEquals(5, firstIds.size());
+            assertEquals(5, secondIds.size());
+            Set<Long> overlap = new HashSet<>(firstIds);
+            overlap.retainAll(secondIds);
+            assertTrue(overlap.isEmpty(), "Both claims took " + overlap);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completeIgnoresAStaleClaim() {
+        var entity = row();
+        entity.setStatus(Status.SENDING);
+        entity.setAttempts(2);
+        entity.setClaimedBy("node-b");
+        repository.save(entity);
+        var transaction = new TransactionTemplate(transactionManager);
+
+        Integer stale = transaction.execute(status -> repository.complete(
+                entity.getDeliveryId(), "node-a", 1, Status.FAILED, null, "Lease expired"));
+        Integer current = transaction.execute(status -> repository.complete(
+                entity.getDeliveryId(), "node-b", 2, Status.SENT, Instant.now(), null));
+
+        assertEquals(0, stale);
+        assertEquals(1, current);
+        assertEquals(Status.SENT, repository.findById(entity.getId()).orElseThrow().getStatus());
+    }
+
+    private Set<Long> claim() {
+        Set<Long> ids = new HashSet<>();
+        for (EmailOutboxMessage entity : repository.findClaimable(OPEN, Instant.now(), PageRequest.of(0, 5))) {
+            ids.add(entity.getId());
+        }
+        return ids;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static EmailOutboxMessage row() {
+        var entity = new EmailOutboxMessage();
+        entity.setDeliveryId(UUID.randomUUID().toString());
+        entity.setFrom("noreply@erudio.com.br");
+        entity.setTo("leandro@erudio.com.br");
+        entity.setSubject("Outbox");
+        entity.setBody("<p>Hello</p>");
+        entity.setStatus(Status.PENDING);
+        entity.setAttempts(0);
+        entity.setNextAttemptAt(Instant.now().minusSeconds(1));
+        entity.setCreatedAt(Instant.now());
+        return entity;
+    }
+}
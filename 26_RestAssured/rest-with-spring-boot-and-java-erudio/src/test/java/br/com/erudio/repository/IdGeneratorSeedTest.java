@@ -0,0 +1,84 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Book;
+import br.com.erudio.model.Person;
+import br.com.erudio.model.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The migrations leave rows in person, books and users, new ids must start above them
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class IdGeneratorSeedTest extends AbstractIntegrationTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void firstPersonInsertedGoesAboveTheSeededRows() {
+        long seeded = maxId("Person");
+        assertTrue(seeded > 0, "Expected the migrations to seed people");
+
+        Person person = new Person();
+        person.setFirstName("Seed First Name");
+        person.setLastName("Seed Last Name");
+        person.setAddress("Seed Address");
+        person.setGender("Male");
+        person.setEnabled(true);
+        entityManager.persist(person);
+        entityManager.flush();
+
+        assertTrue(person.getId() > seeded, "Person id " + person.getId() + " is not above " + seeded);
+    }
+
+    @Test
+    void firstBookInsertedGoesAboveTheSeededRows() {
+        long seeded = maxId("Book");
+        assertTrue(seeded > 0, "Expected the migrations to seed books");
+
+        Book book = new Book();
+        book.setAuthor("Seed Author");
+        book.setLaunchDate(new Date());
+        book.setPrice(10D);
+        book.setTitle("Seed Title");
+        entityManager.persist(book);
+        entityManager.flush();
+
+        assertTrue(book.getId() > seeded, "Book id " + book.getId() + " is not above " + seeded);
+    }
+
+    @Test
+    void firstUserInsertedGoesAboveTheSeededRows() {
+        long seeded = maxId("User");
+        assertTrue(seeded > 0, "Expected the migrations to seed users");
+
+        User user = new User();
+        user.setUserName("seed-user");
+        user.setFullName("Seed User");
+        user.setPassword("secret");
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        user.setEnabled(true);
+        entityManager.persist(user);
+        entityManager.flush();
+
+        assertTrue(user.getId() > seeded, "User id " + user.getId() + " is not above " + seeded);
+    }
+
+    private long maxId(String entity) {
+        return entityManager.createQuery("SELECT COALESCE(MAX(e.id), 0) FROM " + entity + " e", Long.class)
+                .getSingleResult();
+    }
+}
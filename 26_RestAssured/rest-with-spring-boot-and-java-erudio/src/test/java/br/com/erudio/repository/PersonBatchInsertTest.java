@@ -0,0 +1,57 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Person;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonBatchInsertTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void saveAllUsesJdbcBatches() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<Person> people = IntStream.range(0, 120).mapToObj(this::mockPerson).toList();
+        repository.saveAll(people);
+        entityManager.flush();
+
+        assertEquals(120, statistics.getEntityInsertCount());
+        // 3 insert batches of 50 plus, at most, a select and an update on id_generator per block of 50 ids
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 9, "Expected batched inserts but " + statements + " statements were prepared");
+        assertTrue(people.stream().allMatch(person -> person.getId() != null));
+    }
+
+    private Person mockPerson(int number) {
+        Person person = new Person();
+        person.setFirstName("Batch First Name " + number);
+        person.setLastName("Batch Last Name " + number);
+        person.setAddress("Batch Address " + number);
+        person.setGender(number % 2 == 0 ? "Male" : "Female");
+        person.setEnabled(true);
+        return person;
+    }
+}
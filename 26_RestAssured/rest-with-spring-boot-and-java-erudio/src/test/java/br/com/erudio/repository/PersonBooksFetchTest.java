@@ -0,0 +1,67 @@
+package br.com.erudio.repository;
+
+import br.com.erudio.data.dto.PersonDTO;
+import br.com.erudio.integrationtests.testcontainers.AbstractIntegrationTest;
+import br.com.erudio.model.Person;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+import static br.com.erudio.mapper.ObjectMapper.parseObject;
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PersonBooksFetchTest extends AbstractIntegrationTest {
+
+    @Autowired
+    PersonRepository repository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void findAllPagesRunTheSameStatementsWhateverTheirSize() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+
+        for (int size : new int[] {1, 12, 50}) {
+            entityManager.clear();
+            statistics.clear();
+
+            List<PersonDTO> people = repository.findAllBy(PageRequest.of(0, size, Sort.by("firstName")))
+                    .stream().map(person -> parseObject(person, PersonDTO.class)).toList();
+
+            assertEquals(size, people.size());
+            assertEquals(1, statistics.getPrepareStatementCount(), "Page of " + size + " loaded more than the people");
+            assertEquals(0, statistics.getCollectionFetchCount());
+        }
+    }
+
+    @Test
+    void findWithBooksByIdJoinsTheBooksIn() {
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        Long id = entityManager.createQuery("SELECT p.id FROM Person p JOIN p.books ORDER BY p.id", Long.class)
+                .setMaxResults(1)
+                .getSingleResult();
+        entityManager.clear();
+        statistics.clear();
+
+        Person person = repository.findWithBooksById(id).orElseThrow();
+
+        assertTrue(Hibernate.isInitialized(person.getBooks()));
+        assertFalse(person.getBooks().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
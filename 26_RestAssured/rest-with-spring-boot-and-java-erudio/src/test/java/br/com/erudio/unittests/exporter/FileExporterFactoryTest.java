@@ -0,0 +1,38 @@
+package br.com.erudio.unittests.exporter;
+
+import br.com.erudio.exception.NotAcceptableException;
+import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.file.exporter.factory.FileExporterFactory;
+import br.com.erudio.file.exporter.impl.PdfExporter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FileExporterFactoryTest {
+
+    private final PdfExporter pdfExporter = new PdfExporter();
+    private FileExporterFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean(PdfExporter.class)).thenReturn(pdfExporter);
+        factory = new FileExporterFactory();
+        ReflectionTestUtils.setField(factory, "context", context);
+    }
+
+    @Test
+    void reportsOnlyComeAsPdf() {
+        assertSame(pdfExporter, factory.getReportExporter(MediaTypes.APPLICATION_PDF_VALUE));
+
+        var exception = assertThrows(NotAcceptableException.class,
+                () -> factory.getReportExporter(MediaTypes.APPLICATION_CSV_VALUE));
+        assertEquals("Person export is only available as PDF!", exception.getMessage());
+        assertThrows(NotAcceptableException.class, () -> factory.getReportExporter(MediaTypes.APPLICATION_XLSX_VALUE));
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.erudio.unittests.exporter;
+
+import br.com.erudio.file.exporter.report.ReportRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ReportRegistryTest {
+
+    @TempDir
+    Path templates;
+
+    @Test
+    void compilesEachTemplateOnce() throws Exception {
+        var registry = new ReportRegistry();
+
+        var report = registry.get(ReportRegistry.BOOKS);
+
+        assertSame(report, registry.get(ReportRegistry.BOOKS));
+    }
+
+    @Test
+    void recompilesChangedTemplateWhenHotReloadIsEnabled() throws Exception {
+        Path template = templates.resolve("books.jrxml");
+        try (InputStream inputStream = getClass().getResourceAsStream("/templates/books.jrxml")) {
+            Files.copy(inputStream, template);
+        }
+        var registry = new ReportRegistry();
+        ReflectionTestUtils.setField(registry, "location", templates.toUri().toString());
+        ReflectionTestUtils.setField(registry, "hotReload", true);
+
+        var report = registry.get(ReportRegistry.BOOKS);
+        assertSame(report, registry.get(ReportRegistry.BOOKS));
+
+        Files.setLastModifiedTime(template, FileTime.fromMillis(Files.getLastModifiedTime(template).toMillis() + 1000));
+
+        assertNotSame(report, registry.get(ReportRegistry.BOOKS));
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.erudio.unittests.exporter;
+
+import br.com.erudio.exception.ServiceUnavailableException;
+import br.com.erudio.file.exporter.report.ReportRenderPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportRenderPoolTest {
+
+    @Test
+    void rejectsRendersOnceTheQueueIsFull() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var pool = new ReportRenderPool(1, 1, 7, 1, registry);
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try {
+            var running = pool.submit(() -> {
+                started.countDown();
+                release.await();
+                return new byte[]{1};
+            });
+            started.await();
+            var queued = pool.submit(() -> new byte[]{2});
+
+            var exception = assertThrows(ServiceUnavailableException.class, () -> pool.submit(() -> new byte[]{3}));
+            assertEquals(7, exception.getRetryAfterSeconds());
+            assertEquals(1, registry.counter("reports.render.rejected").count());
+
+            release.countDown();
+            assertArrayEquals(new byte[]{1}, running.get());
+            assertArrayEquals(new byte[]{2}, queued.get());
+            assertEquals(2, registry.timer("reports.render.time").count());
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rendersOnTheWorkerAndSpillsLargeReportsToDisk() throws Exception {
+        var pool = new ReportRenderPool(1, 1, 7, 1, new SimpleMeterRegistry());
+        var rendering = new StringBuilder();
+
+        try {
+            var small = pool.render(outputStream -> {
+                rendering.append(Thread.currentThread().getName());
+                outputStream.write(new byte[]{1, 2, 3});
+            }).get();
+            var large = pool.render(outputStream -> outputStream.write(new byte[4096])).get();
+
+            assertTrue(rendering.toString().startsWith("report-render-"));
+            assertFalse(small.isSpilled());
+            assertTrue(large.isSpilled());
+            var response = new ByteArrayOutputStream();
+            small.writeTo(response);
+            assertArrayEquals(new byte[]{1, 2, 3}, response.toByteArray());
+            response.reset();
+            large.writeTo(response);
+            assertEquals(4096, response.size());
+            small.discard();
+            large.discard();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package br.com.erudio.unittests.hateoas;
+
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.hateoas.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort.Direction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void roundTripsKeysWithSeparatorsAndAccents() {
+        var cursor = new KeysetCursor(Direction.DESC, "São Paulo: 1:2", 42L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, KeysetCursor.decode(token));
+    }
+
+    @Test
+    void rejectsTamperedTokens() {
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("not a cursor"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("eDoxOmFiYw"));
+        assertThrows(BadRequestException.class, () -> KeysetCursor.decode("YTpvbmU6YWJj"));
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.erudio.unittests.hateoas;
+
+import br.com.erudio.controllers.PersonController;
+import br.com.erudio.hateoas.LinkTemplateCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+class LinkTemplateCacheTest {
+
+    private final LinkTemplateCache cache = new LinkTemplateCache(PersonController.class, this::buildLinks);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void expandMatchesDirectLinks() {
+        bindRequest("localhost", 8888);
+
+        assertEquals(render(buildLinks(1L)), render(cache.expand(1L)));
+        assertEquals(render(buildLinks(42L)), render(cache.expand(42L)));
+    }
+
+    @Test
+    void expandKeepsTemplatesPerBaseUrl() {
+        bindRequest("localhost", 8888);
+        assertEquals(render(buildLinks(7L)), render(cache.expand(7L)));
+
+        bindRequest("api.erudio.com.br", 443);
+        List<Link> links = cache.expand(7L);
+        assertEquals(render(buildLinks(7L)), render(links));
+        assertEquals("https://api.erudio.com.br/api/person/v1/7", links.get(0).getHref());
+    }
+
+    // Link.toString() covers every attribute that ends up in the response body
+    private static List<String> render(List<Link> links) {
+        return links.stream().map(Link::toString).toList();
+    }
+
+    private void bindRequest(String host, int port) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServerName(host);
+        request.setServerPort(port);
+        request.setScheme(port == 443 ? "https" : "http");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private List<Link> buildLinks(Long id) {
+        return List.of(
+                linkTo(methodOn(PersonController.class).findById(id)).withSelfRel().withType("GET"),
+                linkTo(methodOn(PersonController.class).findAll(1, 12, "asc")).withRel("findAll").withType("GET"),
+                linkTo(methodOn(PersonController.class).disablePerson(id)).withRel("disable").withType("PATCH"),
+                linkTo(methodOn(PersonController.class).exportPage(
+                        1, 12, "asc", null)).withRel("exportPage").withType("GET").withTitle("Export People")
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.erudio.unittests.importer;
+
+import br.com.erudio.data.dto.PersonDTO;
+import br.com.erudio.file.importer.contract.PersonRowHandler;
+import br.com.erudio.file.importer.impl.XlsxImporter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class XlsxImporterTest {
+
+    @Test
+    void importFileStreamsValidRows() throws Exception {
+        byte[] xlsx = workbook(
+                new String[]{"first_name", "last_name", "address", "gender"},
+                new String[]{"Ayrton", "Senna", "São Paulo", "Male"},
+                new String[]{null, "Blank", "Row", "Male"},
+                new String[]{"Marie", "Curie"},
+                new String[]{"Nikola", "Tesla", "Smiljan", "Male"}
+        );
+
+        List<PersonDTO> people = new ArrayList<>();
+        List<Long> invalidRows = new ArrayList<>();
+        new XlsxImporter().importFile(new ByteArrayInputStream(xlsx), new PersonRowHandler() {
+            @Override
+            public void onRow(long rowNumber, PersonDTO person) {
+                people.add(person);
+            }
+
+            @Override
+            public void onInvalidRow(long rowNumber, Exception cause) {
+                invalidRows.add(rowNumber);
+            }
+        });
+
+        assertEquals(2, people.size());
+        assertEquals("Ayrton", people.get(0).getFirstName());
+        assertEquals("São Paulo", people.get(0).getAddress());
+        assertEquals("Tesla", people.get(1).getLastName());
+        assertEquals("Male", people.get(1).getGender());
+        assertEquals(List.of(3L), invalidRows);
+    }
+
+    private static byte[] workbook(String[]... rows) throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook(); ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
+            Sheet sheet = workbook.createSheet("People");
+            for (int i = 0; i < rows.length; i++) {
+                Row row = sheet.createRow(i);
+                for (int j = 0; j < rows[i].length; j++) {
+                    if (rows[i][j] != null) row.createCell(j).setCellValue(rows[i][j]);
+                }
+            }
+            workbook.write(outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+}
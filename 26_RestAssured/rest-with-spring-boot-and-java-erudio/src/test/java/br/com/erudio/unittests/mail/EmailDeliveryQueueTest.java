@@ -0,0 +1,174 @@
+package br.com.erudio.unittests.mail;
+
+import br.com.erudio.config.EmailConfig;
+import br.com.erudio.exception.BadRequestException;
+import br.com.erudio.exception.ServiceUnavailableException;
+import br.com.erudio.mail.EmailDeliveryQueue;
+import br.com.erudio.mail.EmailMessage;
+import br.com.erudio.mail.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDeliveryQueueTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SimpleMeterRegistry registry;
+    private FlakyMailSender mailSender;
+    private EmailConfig emailConfig;
+    private EmailDeliveryQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        mailSender = new FlakyMailSender();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        emailConfig = new EmailConfig();
+        emailConfig.setUsername("noreply@erudio.com.br");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (queue != null) queue.shutdown();
+    }
+
+    @Test
+    void deliversQueuedMessagesInBatches() throws Exception {
+        queue = queue(1, 10, 20, 3);
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(message("leandro@erudio.com.br; flavio@erudio.com.br", "Subject " + i));
+        }
+        queue.start();
+
+        awaitCount("mail.delivery.sent", 5);
+        // GreenMail keeps one copy per recipient
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(10, received.length);
+        assertEquals("noreply@erudio.com.br", received[0].getFrom()[0].toString());
+        assertEquals(1, mailSender.connections.get());
+        assertEquals(1, registry.get("mail.delivery.batch.size").summary().count());
+    }
+
+    @Test
+    void retriesAfterConnectionFailures() throws Exception {
+        mailSender.failuresLeft.set(2);
+        queue = queue(1, 10, 20, 3);
+        queue.start();
+
+        queue.enqueue(message("leandro@erudio.com.br", "Retried"));
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        assertEquals("Retried", greenMail.getReceivedMessages()[0].getSubject());
+        awaitCount("mail.delivery.sent", 1);
+        assertEquals(2, registry.get("mail.delivery.retried").counter().count());
+        assertEquals(0, registry.get("mail.delivery.failed").counter().count());
+    }
+
+    @Test
+    void dropsMessagesAfterTheLastAttempt() throws Exception {
+        mailSender.failuresLeft.set(10);
+        queue = queue(1, 10, 20, 2);
+        queue.start();
+
+        queue.enqueue(message("leandro@erudio.com.br", "Dropped"));
+
+        awaitCount("mail.delivery.failed", 1);
+        assertEquals(1, registry.get("mail.delivery.retried").counter().count());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+    }
+
+    @Test
+    void streamsAttachmentsIntoTheMimeBody() throws Exception {
+        var opened = new AtomicInteger();
+        InputStreamSource attachment = () -> {
+            opened.incrementAndGet();
+            return new ByteArrayInputStream("Erudio".getBytes(StandardCharsets.UTF_8));
+        };
+        queue = queue(1, 10, 20, 3);
+        queue.start();
+
+        queue.enqueue(EmailMessage.builder()
+                .to("leandro@erudio.com.br")
+                .withSubject("With attachment")
+                .withMessage("<p>Hello</p>")
+                .attach("report.txt", attachment)
+                .build());
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 1));
+        var content = (MimeMultipart) greenMail.getReceivedMessages()[0].getContent();
+        var part = content.getBodyPart(1);
+        assertEquals("report.txt", part.getFileName());
+        assertEquals("Erudio", new String(part.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+        awaitCount("mail.delivery.sent", 1);
+        assertTrue(opened.get() > 0);
+    }
+
+    @Test
+    void rejectsWhenTheQueueIsFull() {
+        queue = queue(1, 1, 20, 3);
+        queue.enqueue(message("leandro@erudio.com.br", "First"));
+
+        var exception = assertThrows(ServiceUnavailableException.class,
+                () -> queue.enqueue(message("leandro@erudio.com.br", "Second")));
+        assertEquals(10, exception.getRetryAfterSeconds());
+        assertEquals(1, registry.get("mail.delivery.rejected").counter().count());
+    }
+
+    @Test
+    void builderRejectsInvalidRecipients() {
+        assertThrows(BadRequestException.class, () -> message("not an address@", "Invalid"));
+        assertThrows(BadRequestException.class, () -> message("", "Empty"));
+    }
+
+    private EmailDeliveryQueue queue(int workers, int capacity, int batchSize, int maxAttempts) {
+        return new EmailDeliveryQueue(new EmailSender(mailSender), emailConfig,
+                workers, capacity, batchSize, maxAttempts, 10, 50, 10, registry);
+    }
+
+    private EmailMessage message(String to, String subject) {
+        return EmailMessage.builder()
+                .to(to)
+                .withSubject(subject)
+                .withMessage("<p>Hello</p>")
+                .build();
+    }
+
+    private void awaitCount(String counter, double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get(counter).counter().count() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, registry.get(counter).counter().count());
+    }
+
+    private static class FlakyMailSender extends JavaMailSenderImpl {
+
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger connections = new AtomicInteger();
+
+        @Override
+        protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) {
+            if (failuresLeft.getAndDecrement() > 0) throw new MailSendException("Connection refused");
+            connections.incrementAndGet();
+            super.doSend(mimeMessages, originalMessages);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.erudio.unittests.mail;
+
+import br.com.erudio.config.EmailConfig;
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.mail.EmailDeliveryQueue;
+import br.com.erudio.mail.EmailMessage;
+import br.com.erudio.mail.EmailOutbox;
+import br.com.erudio.mail.EmailOutboxDispatcher;
+import br.com.erudio.mail.EmailSender;
+import br.com.erudio.model.EmailOutboxMessage;
+import br.com.erudio.model.EmailOutboxMessage.Status;
+import br.com.erudio.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @TempDir
+    Path uploadDir;
+
+    private EmailOutboxRepository repository;
+    private EmailOutbox outbox;
+    private EmailDeliveryQueue queue;
+    private EmailOutboxDispatcher dispatcher;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        repository = mock(EmailOutboxRepository.class);
+        var emailConfig = new EmailConfig();
+        emailConfig.setUsername("noreply@erudio.com.br");
+        var fileStorageConfig = new FileStorageConfig();
+        fileStorageConfig.setUploadDir(uploadDir.toString());
+        outbox = new EmailOutbox(repository, emailConfig, fileStorageConfig, 600, 3, 30);
+
+        var mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        queue = new EmailDeliveryQueue(new EmailSender(mailSender), emailConfig, 1, 4, 20, 1, 10, 50, 10, registry);
+        queue.start();
+        dispatcher = new EmailOutboxDispatcher(outbox, queue, false, 1000, 3, 7, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    void addStoresPendingRowsWithDefaultSender() throws Exception {
+        var attachment = new MockMultipartFile("attachment", "report.txt", "text/plain", "Erudio".getBytes());
+
+        UUID deliveryId = outbox.add(message("leandro@erudio.com.br"), attachment);
+
+        verify(repository).save(argThat(entity -> entity.getStatus() == Status.PENDING
+                && entity.getDeliveryId().equals(deliveryId.toString())
+                && "noreply@erudio.com.br".equals(entity.getFrom())
+                && entity.getAttempts() == 0));
+        Path stored = uploadDir.resolve("email-outbox").resolve(deliveryId.toString()).resolve("report.txt");
+        assertEquals("Erudio", Files.readString(stored));
+
+        var entity = row("leandro@erudio.com.br", 0);
+        entity.setAttachmentPath(stored.toString());
+        var message = outbox.toMessage(entity);
+        assertEquals("report.txt", message.getAttachmentName());
+        assertArrayEquals("Erudio".getBytes(), message.getAttachment().getInputStream().readAllBytes());
+    }
+
+    @Test
+    void claimedRowsAreSentAndMarked() throws Exception {
+        var first = row("leandro@erudio.com.br", 0);
+        var second = row("flavio@erudio.com.br", 1);
+        var abandoned = row("erudio@erudio.com.br", 3);
+        when(repository.findClaimable(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(first, second, abandoned));
+
+        dispatcher.poll();
+
+        verify(repository).findClaimable(eq(List.of(Status.PENDING, Status.SENDING)), any(Instant.class),
+                argThat(pageable -> pageable.getPageSize() == 3));
+        assertEquals(Status.SENDING, first.getStatus());
+        assertEquals(2, second.getAttempts());
+        assertTrue(first.getNextAttemptAt().isAfter(Instant.now().plusSeconds(590)));
+        assertNotNull(first.getClaimedBy());
+        assertEquals(Status.FAILED, abandoned.getStatus());
+
+        assertTrue(greenMail.waitForIncomingEmail(5000, 2));
+        verify(repository, timeout(5000)).complete(eq(first.getDeliveryId()), eq(first.getClaimedBy()), eq(1),
+                eq(Status.SENT), any(Instant.class), isNull());
+        verify(repository, timeout(5000)).complete(eq(second.getDeliveryId()), eq(second.getClaimedBy()), eq(2),
+                eq(Status.SENT), any(Instant.class), isNull());
+        assertEquals(2, registry.get("mail.outbox.claimed").counter().count());
+    }
+
+    @Test
+    void invalidRowsAreMarkedFailed() {
+        var broken = row("not an address@", 0);
+        when(repository.findClaimable(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(broken));
+
+        dispatcher.poll();
+
+        verify(repository).complete(eq(broken.getDeliveryId()), eq(broken.getClaimedBy()), eq(1),
+                eq(Status.FAILED), isNull(), anyString());
+        assertEquals(1, registry.get("mail.outbox.failed").counter().count());
+    }
+
+    @Test
+    void failedSendsGoBackToTheTableInsteadOfRetryingInMemory() {
+        queue.shutdown();
+        var unreachable = new JavaMailSenderImpl();
+        unreachable.setHost("localhost");
+        unreachable.setPort(1);
+        var emailConfig = new EmailConfig();
+        emailConfig.setUsername("noreply@erudio.com.br");
+        queue = new EmailDeliveryQueue(new EmailSender(unreachable), emailConfig, 1, 4, 20, 5, 10, 50, 10, registry);
+        queue.start();
+        var retrying = new EmailOutboxDispatcher(outbox, queue, false, 1000, 3, 7, registry);
+        var row = row("leandro@erudio.com.br", 1);
+        when(repository.findClaimable(anyCollection(), any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(row));
+
+        retrying.poll();
+
+        verify(repository, timeout(5000)).release(eq(row.getDeliveryId()), eq(row.getClaimedBy()), eq(2),
+                eq(Status.PENDING), argThat(next -> next.isAfter(Instant.now().plusSeconds(50))), anyString());
+        verify(repository, never()).complete(anyString(), anyString(), anyInt(), any(), any(), any());
+        assertEquals(1, registry.get("mail.delivery.retried").counter().count());
+    }
+
+    @Test
+    void doesNotClaimWhenTheLocalQueueIsFull() {
+        queue.shutdown();
+        var stalled = new EmailDeliveryQueue(mock(EmailSender.class), new EmailConfig(), 1, 1, 20, 1, 10, 50, 10, registry);
+        stalled.enqueue(message("leandro@erudio.com.br"));
+        var busy = new EmailOutboxDispatcher(outbox, stalled, false, 1000, 3, 7, registry);
+
+        busy.poll();
+
+        verify(repository, never()).findClaimable(anyCollection(), any(Instant.class), any(Pageable.class));
+        verify(repository).countByStatusIn(List.of(Status.PENDING, Status.SENDING));
+    }
+
+    private EmailMessage message(String to) {
+        return EmailMessage.builder()
+                .to(to)
+                .withSubject("Outbox")
+                .withMessage("<p>Hello</p>")
+                .build();
+    }
+
+    private EmailOutboxMessage row(String to, int attempts) {
+        var entity = new EmailOutboxMessage();
+        entity.setDeliveryId(UUID.randomUUID().toString());
+        entity.setFrom("noreply@erudio.com.br");
+        entity.setTo(to);
+        entity.setSubject("Outbox");
+        entity.setBody("<p>Hello</p>");
+        entity.setStatus(Status.PENDING);
+        entity.setAttempts(attempts);
+        entity.setNextAttemptAt(Instant.now());
+        entity.setCreatedAt(Instant.now());
+        return entity;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.erudio.unittests.repository;
+
+import br.com.erudio.repository.PageCountCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PageCountCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger countQueries = new AtomicInteger();
+
+    @Test
+    void countsOncePerShapeUntilInvalidated() {
+        var cache = new PageCountCache(60_000, 100, "exact", meterRegistry);
+
+        assertEquals(40, cache.toPage("people", List.of(1, 2), PageRequest.of(0, 2), this::count).getTotalElements());
+        assertEquals(40, cache.toPage("people", List.of(3, 4), PageRequest.of(1, 2), this::count).getTotalElements());
+        assertEquals(40, cache.toPage("books", List.of(1, 2), PageRequest.of(0, 2), this::count).getTotalElements());
+        cache.invalidateAll();
+        assertEquals(40, cache.toPage("people", List.of(1, 2), PageRequest.of(0, 2), this::count).getTotalElements());
+
+        assertEquals(3, countQueries.get());
+        assertEquals(1, source("cache"));
+        assertEquals(3, source("query"));
+    }
+
+    @Test
+    void skipsTheCountWhenThePageHoldsTheTotal() {
+        var cache = new PageCountCache(60_000, 100, "exact", meterRegistry);
+
+        assertEquals(1, cache.toPage("people", List.of(1), PageRequest.of(0, 12), this::count).getTotalElements());
+        assertEquals(25, cache.toPage("people", List.of(1), PageRequest.of(2, 12), this::count).getTotalElements());
+
+        assertEquals(0, countQueries.get());
+        assertEquals(2, source("skipped"));
+    }
+
+    @Test
+    void estimatedModePrefersTheStatistics() {
+        var cache = new PageCountCache(60_000, 100, "estimated", meterRegistry);
+
+        var page = cache.toPage("people", List.of(1, 2), PageRequest.of(0, 2), this::count, () -> 1000);
+        var unestimated = cache.toPage("books", List.of(1, 2), PageRequest.of(0, 2), this::count);
+
+        assertEquals(1000, page.getTotalElements());
+        assertEquals(40, unestimated.getTotalElements());
+        assertEquals(1, countQueries.get());
+        assertEquals(1, source("estimate"));
+    }
+
+    private long count() {
+        countQueries.incrementAndGet();
+        return 40;
+    }
+
+    private double source(String source) {
+        return meterRegistry.get("pagination.page.totals").tag("source", source).counter().count();
+    }
+}
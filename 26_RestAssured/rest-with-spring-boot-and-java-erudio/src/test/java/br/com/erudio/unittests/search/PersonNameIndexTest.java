@@ -0,0 +1,212 @@
+package br.com.erudio.unittests.search;
+
+import br.com.erudio.repository.PersonBatchRepository;
+import br.com.erudio.search.PersonName;
+import br.com.erudio.search.PersonNameIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class PersonNameIndexTest {
+
+    private static final List<PersonName> PEOPLE = List.of(
+            new PersonName(1L, "Nikola"),
+            new PersonName(2L, "Ayrton"),
+            new PersonName(3L, "Brandyn"),
+            new PersonName(4L, "Alessandro"),
+            new PersonName(5L, "José"),
+            new PersonName(6L, "Miko"));
+
+    private PersonBatchRepository repository;
+    private PersonNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(PersonBatchRepository.class);
+        doAnswer(invocation -> {
+            Consumer<PersonName> consumer = invocation.getArgument(0);
+            PEOPLE.forEach(consumer);
+            return null;
+        }).when(repository).streamNames(any());
+        index = new PersonNameIndex(repository, true, 0, new SimpleMeterRegistry(), directExecutor());
+    }
+
+    @Test
+    void isNotUsedUntilBuilt() {
+        assertFalse(index.supports("iko", byFirstName(Sort.Direction.ASC)));
+
+        index.build();
+
+        assertTrue(index.supports("iko", byFirstName(Sort.Direction.ASC)));
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void leavesWildcardsAndOtherSortsToTheDatabase() {
+        index.build();
+
+        assertFalse(index.supports("a%", byFirstName(Sort.Direction.ASC)));
+        assertFalse(index.supports("a_b", byFirstName(Sort.Direction.ASC)));
+        assertFalse(index.supports("iko", PageRequest.of(0, 12, Sort.by("lastName"))));
+    }
+
+    @Test
+    void findsSubstringsIgnoringCaseAndAccents() {
+        index.build();
+
+        assertEquals(List.of(6L, 1L), search("IKO", Sort.Direction.ASC).ids());
+        assertEquals(List.of(5L), search("jose", Sort.Direction.ASC).ids());
+        assertEquals(List.of(4L, 3L), search("and", Sort.Direction.ASC).ids());
+        assertEquals(List.of(), search("xyz", Sort.Direction.ASC).ids());
+    }
+
+    @Test
+    void trigramsMustBeContiguous() {
+        index.build();
+        index.put(7L, "abcxbcd");
+
+        // Both trigrams of "abcd" are in "abcxbcd", but not next to each other
+        assertEquals(0, search("abcd", Sort.Direction.ASC).total());
+        assertEquals(List.of(7L), search("cxb", Sort.Direction.ASC).ids());
+    }
+
+    @Test
+    void shortQueriesUseTheirOwnGrams() {
+        index.build();
+
+        var result = search("o", Sort.Direction.DESC);
+
+        assertEquals(5, result.total());
+        assertEquals(List.of(1L, 6L, 5L, 2L, 4L), result.ids());
+    }
+
+    @Test
+    void pagesAreOrderedAndCounted() {
+        index.build();
+
+        var secondPage = index.search("", PageRequest.of(1, 4, Sort.by(Sort.Direction.ASC, "firstName")));
+
+        assertEquals(6, secondPage.total());
+        assertEquals(List.of(6L, 1L), secondPage.ids());
+        assertEquals(List.of(), index.search("", PageRequest.of(2, 4, Sort.by("firstName"))).ids());
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.build();
+
+        index.put(1L, "Tesla");
+        index.remove(6L);
+        index.put(8L, "Mikaela");
+
+        assertEquals(0, search("iko", Sort.Direction.ASC).total());
+        assertEquals(List.of(1L), search("esl", Sort.Direction.ASC).ids());
+        assertEquals(List.of(8L), search("mik", Sort.Direction.ASC).ids());
+        assertEquals(6, index.size());
+    }
+
+    @Test
+    void writesMadeWhileBuildingWinOverTheStreamedRows() {
+        doAnswer(invocation -> {
+            Consumer<PersonName> consumer = invocation.getArgument(0);
+            index.put(1L, "Tesla");
+            index.remove(2L);
+            PEOPLE.forEach(consumer);
+            return null;
+        }).when(repository).streamNames(any());
+
+        index.build();
+
+        assertEquals(List.of(1L), search("tesla", Sort.Direction.ASC).ids());
+        assertEquals(0, search("ayrton", Sort.Direction.ASC).total());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void compactsAfterManyRenames() {
+        index.build();
+        long before = index.estimatedBytes();
+
+        for (int i = 0; i < 200_000; i++) {
+            index.put(1L, "Nikola " + i);
+        }
+
+        assertEquals(6, index.size());
+        assertEquals(List.of(1L), search("nikola 199999", Sort.Direction.ASC).ids());
+        assertEquals(0, search("nikola 19999 ", Sort.Direction.ASC).total());
+        assertTrue(index.estimatedBytes() < before + 1024 * 1024);
+    }
+
+    @Test
+    void writesMadeWhileCompactingSurviveTheSwap() throws Exception {
+        index.build();
+
+        Thread renames = new Thread(() -> {
+            for (int i = 0; i < 200_000; i++) index.put(1L, "Nikola " + i);
+        });
+        renames.start();
+        for (long id = 100; id < 2100; id++) {
+            index.put(id, "Writer " + id);
+            if (id % 2 == 0) index.remove(id);
+        }
+        renames.join();
+
+        assertEquals(1006, index.size());
+        assertEquals(1000, search("writer", Sort.Direction.ASC).total());
+        assertEquals(List.of(2099L), search("writer 2099", Sort.Direction.ASC).ids());
+        assertEquals(0, search("writer 2098", Sort.Direction.ASC).total());
+        assertEquals(List.of(1L), search("nikola 199999", Sort.Direction.ASC).ids());
+    }
+
+    @Test
+    void rebuildsPickUpRowsWrittenByOtherNodes() {
+        index.build();
+        doAnswer(invocation -> {
+            Consumer<PersonName> consumer = invocation.getArgument(0);
+            index.put(9L, "Local");
+            consumer.accept(new PersonName(1L, "Tesla"));
+            consumer.accept(new PersonName(2L, "Ayrton"));
+            consumer.accept(new PersonName(7L, "Remote"));
+            return null;
+        }).when(repository).streamNames(any());
+
+        index.build();
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(7L), search("remote", Sort.Direction.ASC).ids());
+        assertEquals(List.of(9L), search("local", Sort.Direction.ASC).ids());
+        assertEquals(List.of(1L), search("tesla", Sort.Direction.ASC).ids());
+        assertEquals(0, search("miko", Sort.Direction.ASC).total());
+    }
+
+    private PersonNameIndex.Result search(String name, Sort.Direction direction) {
+        return index.search(name, byFirstName(direction));
+    }
+
+    // Compactions run on the writing thread, so assertions see them finished
+    private static ScheduledExecutorService directExecutor() {
+        return new ScheduledThreadPoolExecutor(1) {
+            @Override
+            public void execute(Runnable command) {
+                command.run();
+            }
+        };
+    }
+
+    private static Pageable byFirstName(Sort.Direction direction) {
+        return PageRequest.of(0, 12, Sort.by(direction, "firstName"));
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.exception.ServiceUnavailableException;
+import br.com.erudio.security.AdaptivePbkdf2PasswordEncoder;
+import br.com.erudio.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptivePbkdf2PasswordEncoderTest {
+
+    // Seeded by V16__Insert_Data_In_Users.sql
+    private static final String SEEDED_HASH = "1e3cdeeaaaeeda173ff6d002e7cb5e3f91ebc354dcff52156c9eaba1793a3a5e5bee306c11099e22";
+
+    @Test
+    void legacyHashesStillMatchAndAskForAnUpgrade() {
+        var encoder = new AdaptivePbkdf2PasswordEncoder(200000);
+
+        assertTrue(encoder.matches("admin123", SEEDED_HASH));
+        assertTrue(encoder.matches("admin123", "{pbkdf2}" + SEEDED_HASH));
+        assertFalse(encoder.matches("wrong", SEEDED_HASH));
+        assertTrue(encoder.upgradeEncoding(SEEDED_HASH));
+    }
+
+    @Test
+    void encodeRecordsTheIterationCount() {
+        var encoder = new AdaptivePbkdf2PasswordEncoder(190000);
+
+        String encoded = encoder.encode("admin123");
+
+        assertTrue(encoded.startsWith("{pbkdf2-190000}"));
+        assertTrue(encoder.matches("admin123", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+        assertTrue(new AdaptivePbkdf2PasswordEncoder(250000).matches("admin123", encoded));
+        assertTrue(new AdaptivePbkdf2PasswordEncoder(250000).upgradeEncoding(encoded));
+        assertFalse(encoder.matches("admin123", "{pbkdf2-abc}" + SEEDED_HASH));
+    }
+
+    @Test
+    void calibrationNeverGoesBelowTheMinimum() {
+        var encoder = AdaptivePbkdf2PasswordEncoder.calibrated(1, 185000, 2000000);
+
+        assertEquals(185000, encoder.getIterations());
+    }
+
+    @Test
+    void boundedEncoderRejectsWhenTheQueueIsFull() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        var registry = new SimpleMeterRegistry();
+        var encoder = new BoundedPasswordEncoder(blocking, 1, 1, 3, registry);
+
+        try {
+            var first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+            started.await();
+            var second = CompletableFuture.supplyAsync(() -> encoder.matches("second", "second"));
+            while (registry.get("security.password.hash.queue.size").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            var exception = assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third"));
+            assertEquals(3, exception.getRetryAfterSeconds());
+
+            release.countDown();
+            assertEquals("first", first.get());
+            assertTrue(second.get());
+            assertEquals(1, registry.counter("security.password.hash.rejected").count());
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.security.jwt.JwtTokenFilter;
+import br.com.erudio.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class JwtTokenFilterTest {
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void publicPathsSkipTokenVerification() throws Exception {
+        JwtTokenProvider provider = mock(JwtTokenProvider.class);
+        var registry = new SimpleMeterRegistry();
+        var filter = new JwtTokenFilter(provider, registry, "/auth/signin", "/swagger-ui/**");
+
+        var request = new MockHttpServletRequest("GET", "/swagger-ui/index.html");
+        request.addHeader("Authorization", "Bearer not-even-a-jwt");
+        var chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(provider);
+        assertEquals(1, registry.get("security.jwt.filter.skipped").tag("token", "present").counter().count());
+    }
+
+    @Test
+    void protectedPathsStillVerifyTheToken() throws Exception {
+        JwtTokenProvider provider = mock(JwtTokenProvider.class);
+        when(provider.resolveToken(any())).thenReturn("token");
+        var filter = new JwtTokenFilter(provider, new SimpleMeterRegistry(), "/auth/signin");
+
+        var request = new MockHttpServletRequest("GET", "/api/person/v1");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(provider).verifyToken(anyString());
+    }
+}
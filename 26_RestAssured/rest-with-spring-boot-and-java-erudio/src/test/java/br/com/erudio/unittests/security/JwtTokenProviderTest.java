@@ -0,0 +1,125 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.exception.InvalidJwtAuthenticationException;
+import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.UserStatusCache;
+import br.com.erudio.security.jwt.JwtTokenProvider;
+import br.com.erudio.security.jwt.RefreshTokenStore;
+import br.com.erudio.security.jwt.VerifiedTokenCache;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtTokenProviderTest {
+
+    @Test
+    void verifyTokenReusesCachedVerification() {
+        JwtTokenProvider provider = provider(true);
+        String token = sign((Algorithm) ReflectionTestUtils.getField(provider, "algorithm"), new Date(System.currentTimeMillis() + 60_000));
+
+        var decodedJWT = provider.verifyToken(token);
+
+        assertEquals("leandro", decodedJWT.getSubject());
+        assertEquals(List.of("ADMIN"), decodedJWT.getClaim("roles").asList(String.class));
+        assertSame(decodedJWT, provider.verifyToken(token));
+    }
+
+    @Test
+    void verifyTokenRejectsForeignSignature() {
+        JwtTokenProvider provider = provider(true);
+        String token = sign(Algorithm.HMAC256("another-secret"), new Date(System.currentTimeMillis() + 60_000));
+
+        assertThrows(JWTVerificationException.class, () -> provider.verifyToken(token));
+    }
+
+    @Test
+    void cachedTokensAgeOutAtExpiry() {
+        var now = Instant.parse("2025-01-01T10:00:00Z");
+        var cache = new VerifiedTokenCache(2, Clock.fixed(now, ZoneOffset.UTC));
+        var live = JWT.decode(sign(Algorithm.HMAC256("secret"), Date.from(now.plusSeconds(60))));
+        var expired = JWT.decode(sign(Algorithm.HMAC256("secret"), Date.from(now.minusSeconds(1))));
+
+        cache.put("live", live);
+        cache.put("expired", expired);
+        cache.put("other", live);
+
+        assertSame(live, cache.get("live"));
+        assertNull(cache.get("expired"));
+        assertSame(live, cache.get("other"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void statelessAuthenticationUsesClaimsAndCachedUserStatus() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.isActive("leandro")).thenReturn(true);
+        when(repository.isActive("flavio")).thenReturn(false);
+        JwtTokenProvider provider = provider(false);
+        ReflectionTestUtils.setField(provider, "statelessAuthentication", true);
+        ReflectionTestUtils.setField(provider, "userStatusCache", new UserStatusCache(repository, 30_000, 100));
+        Algorithm algorithm = (Algorithm) ReflectionTestUtils.getField(provider, "algorithm");
+        var expiresAt = new Date(System.currentTimeMillis() + 60_000);
+
+        var decodedJWT = provider.verifyToken(sign(algorithm, expiresAt));
+        var authentication = provider.getAuthentication(decodedJWT);
+        provider.getAuthentication(decodedJWT);
+
+        assertEquals("leandro", authentication.getName());
+        assertEquals(List.of("ADMIN"), authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList());
+        verify(repository, times(1)).isActive("leandro");
+
+        var disabled = JWT.decode(JWT.create().withSubject("flavio").withExpiresAt(expiresAt).sign(algorithm));
+        assertNull(provider.getAuthentication(disabled));
+    }
+
+    @Test
+    void refreshTokensRotateAndCannotBeReplayed() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            JwtTokenProvider provider = provider(false);
+            ReflectionTestUtils.setField(provider, "refreshRotationEnabled", true);
+            ReflectionTestUtils.setField(provider, "refreshTokenStore", new RefreshTokenStore(10_800_000, 12, Clock.systemUTC()));
+            var tokens = provider.createAccessToken("leandro", List.of("ADMIN"));
+
+            var rotated = provider.refreshToken("Bearer " + tokens.getRefreshToken());
+
+            assertNotEquals(tokens.getRefreshToken(), rotated.getRefreshToken());
+            assertThrows(InvalidJwtAuthenticationException.class, () -> provider.refreshToken("Bearer " + tokens.getRefreshToken()));
+            assertThrows(InvalidJwtAuthenticationException.class, () -> provider.refreshToken("Bearer " + tokens.getAccessToken()));
+            assertEquals("leandro", provider.refreshToken("Bearer " + rotated.getRefreshToken()).getUsername());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private JwtTokenProvider provider(boolean verifiedCacheEnabled) {
+        var provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "verifiedCacheEnabled", verifiedCacheEnabled);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private String sign(Algorithm algorithm, Date expiresAt) {
+        return JWT.create()
+                .withClaim("roles", List.of("ADMIN"))
+                .withIssuedAt(new Date())
+                .withExpiresAt(expiresAt)
+                .withSubject("leandro")
+                .sign(algorithm);
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.exception.TooManyRequestsException;
+import br.com.erudio.security.LoginRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginRateLimiterTest {
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry registry;
+    private LoginRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+        registry = new SimpleMeterRegistry();
+        limiter = new LoginRateLimiter(3, 6, 5, 60, 100, registry, clock::get);
+    }
+
+    @Test
+    void usernameBucketRefillsOverTime() {
+        for (int i = 0; i < 3; i++) limiter.checkLogin("leandro", "10.0.0." + i);
+
+        var exception = assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("LEANDRO", "10.0.0.9"));
+        assertEquals(10, exception.getRetryAfterSeconds());
+        assertEquals(1, registry.get("security.login.rate.limited").tag("key", "username").counter().count());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertDoesNotThrow(() -> limiter.checkLogin("leandro", "10.0.0.9"));
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("leandro", "10.0.0.9"));
+    }
+
+    @Test
+    void ipBucketLimitsAcrossUsernames() {
+        for (int i = 0; i < 5; i++) limiter.checkLogin("user" + i, "10.0.0.1");
+
+        var exception = assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("someone", "10.0.0.1"));
+        assertEquals(1, exception.getRetryAfterSeconds());
+        assertEquals(1, registry.get("security.login.rate.limited").tag("key", "ip").counter().count());
+        assertDoesNotThrow(() -> limiter.checkLogin("someone", "10.0.0.2"));
+        assertEquals(6, registry.get("security.login.rate.allowed").counter().count());
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.repository.RefreshTokenRepository;
+import br.com.erudio.security.jwt.RefreshTokenStore;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenStoreTest {
+
+    private static final long VALIDITY = 3 * 3600000L;
+
+    @Test
+    void tokensCanOnlyBeConsumedOnce() {
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var store = new RefreshTokenStore(VALIDITY, 12, clock);
+        var jti = UUID.randomUUID();
+        long expiresAt = clock.millis() + VALIDITY;
+
+        store.register(jti, expiresAt);
+
+        assertTrue(store.consume(jti, expiresAt));
+        assertFalse(store.consume(jti, expiresAt));
+        assertFalse(store.consume(UUID.randomUUID(), expiresAt));
+    }
+
+    @Test
+    void tablesGrowAndSurviveTombstones() {
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var store = new RefreshTokenStore(VALIDITY, 12, clock);
+        long expiresAt = clock.millis() + VALIDITY;
+        List<UUID> tokens = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            var jti = UUID.randomUUID();
+            tokens.add(jti);
+            store.register(jti, expiresAt);
+            if (i % 2 == 0) assertTrue(store.consume(jti, expiresAt));
+        }
+
+        assertEquals(2500, store.size());
+        for (int i = 1; i < tokens.size(); i += 2) {
+            assertTrue(store.consume(tokens.get(i), expiresAt));
+        }
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void expiredBucketsAreDroppedAndReused() {
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var store = new RefreshTokenStore(VALIDITY, 12, clock);
+        var old = UUID.randomUUID();
+        long oldExpiry = clock.millis() + VALIDITY;
+        store.register(old, oldExpiry);
+
+        clock.advance(VALIDITY + 1);
+        assertFalse(store.consume(old, oldExpiry));
+
+        // The bucket stops counting once its whole expiry window has passed
+        clock.advance(VALIDITY / 12);
+        assertEquals(0, store.size());
+
+        // A full ring later the same slot now belongs to a newer bucket
+        clock.advance(VALIDITY);
+        var fresh = UUID.randomUUID();
+        long freshExpiry = clock.millis() + VALIDITY;
+        store.register(fresh, freshExpiry);
+        assertEquals(1, store.size());
+        assertTrue(store.consume(fresh, freshExpiry));
+    }
+
+    @Test
+    void expiriesTruncatedToSecondsLandInTheSameBucket() {
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var store = new RefreshTokenStore(VALIDITY, 7, clock);
+        long bucketMillis = VALIDITY / 7;
+        // Just past a bucket boundary that is not on a whole second, the exp claim falls on the other side
+        long boundary = (clock.millis() + VALIDITY) / bucketMillis * bucketMillis;
+        assertNotEquals(0, boundary % 1000);
+        var jti = UUID.randomUUID();
+
+        store.register(jti, boundary + 1);
+
+        assertTrue(store.consume(jti, (boundary + 1) / 1000 * 1000));
+    }
+
+    @Test
+    void theDatabaseStoreExchangesThroughTheSharedTable() {
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var repository = mock(RefreshTokenRepository.class);
+        var store = new RefreshTokenStore(VALIDITY, 12, clock, repository);
+        var jti = UUID.randomUUID();
+        long expiresAt = clock.millis() + VALIDITY + 250;
+        when(repository.consume(jti.toString(), clock.instant())).thenReturn(1, 0);
+
+        store.register(jti, expiresAt);
+
+        verify(repository).register(jti.toString(), Instant.ofEpochSecond(expiresAt / 1000));
+        assertTrue(store.consume(jti, expiresAt / 1000 * 1000));
+        assertFalse(store.consume(jti, expiresAt / 1000 * 1000));
+        clock.advance(VALIDITY + 1000);
+        assertFalse(store.consume(jti, expiresAt / 1000 * 1000));
+        verify(repository, times(2)).consume(anyString(), any());
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
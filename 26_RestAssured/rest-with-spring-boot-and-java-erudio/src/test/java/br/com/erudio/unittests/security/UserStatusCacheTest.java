@@ -0,0 +1,73 @@
+package br.com.erudio.unittests.security;
+
+import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.UserStatusCache;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserStatusCacheTest {
+
+    @Test
+    void statusesAreReusedUntilTheTtlOrAnInvalidation() {
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.isActive("leandro")).thenReturn(true, false, true);
+        var clock = new MutableClock(Instant.parse("2025-01-01T10:00:00Z"));
+        var cache = new UserStatusCache(repository, 30_000, 100, clock);
+
+        assertTrue(cache.isActive("leandro"));
+        assertTrue(cache.isActive("leandro"));
+        verify(repository, times(1)).isActive("leandro");
+
+        clock.advance(30_000);
+        assertFalse(cache.isActive("leandro"));
+
+        cache.invalidate("leandro");
+        assertTrue(cache.isActive("leandro"));
+        verify(repository, times(3)).isActive("leandro");
+    }
+
+    @Test
+    void unknownUsersAreCachedAsInactive() {
+        UserRepository repository = mock(UserRepository.class);
+        var cache = new UserStatusCache(repository, 30_000, 100, Clock.systemUTC());
+
+        assertFalse(cache.isActive("ghost"));
+        assertFalse(cache.isActive("ghost"));
+        verify(repository, times(1)).isActive("ghost");
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
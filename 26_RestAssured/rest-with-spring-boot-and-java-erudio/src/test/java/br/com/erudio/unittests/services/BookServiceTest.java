@@ -2,6 +2,7 @@ package br.com.erudio.unittests.services;
 
 import br.com.erudio.data.dto.BookDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.hateoas.KeysetCursor;
 import br.com.erudio.model.Book;
 import br.com.erudio.repository.BookRepository;
 import br.com.erudio.services.BookService;
@@ -17,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 
@@ -49,6 +51,22 @@ class BookServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    @Test
+    void scrollDescendingSeeksBeforeTheCursor() {
+        List<Book> rows = input.mockEntityList().subList(0, 4);
+        var cursor = new KeysetCursor(Sort.Direction.DESC, "Some Title9", 9L).encode();
+        when(repository.findPageBefore("Some Title9", 9L, PageRequest.ofSize(4))).thenReturn(rows);
+
+        var result = service.scroll(cursor, 3, Sort.Direction.ASC);
+
+        assertEquals(3, result.getContent().size());
+        String next = result.getRequiredLink(IanaLinkRelations.NEXT).getHref();
+        assertTrue(next.contains("direction=desc"));
+        assertEquals(new KeysetCursor(Sort.Direction.DESC, "Some Title2", 2L),
+                KeysetCursor.decode(next.substring(next.indexOf("cursor=") + "cursor=".length())));
+        verify(repository, never()).count();
+    }
+
     @Test
     void findById() {
         Book book = input.mockEntity(1);
@@ -2,30 +2,50 @@ package br.com.erudio.unittests.services;
 
 import br.com.erudio.data.dto.PersonDTO;
 import br.com.erudio.exception.RequiredObjectIsNullException;
+import br.com.erudio.file.exporter.MediaTypes;
+import br.com.erudio.file.exporter.factory.FileExporterFactory;
+import br.com.erudio.file.exporter.impl.CsvExporter;
+import br.com.erudio.file.importer.factory.FileImporterFactory;
+import br.com.erudio.file.importer.impl.CsvImporter;
+import br.com.erudio.hateoas.KeysetCursor;
 import br.com.erudio.model.Person;
+import br.com.erudio.repository.PageCountCache;
+import br.com.erudio.repository.PersonBatchRepository;
 import br.com.erudio.repository.PersonRepository;
+import br.com.erudio.search.PersonNameIndex;
 import br.com.erudio.services.PersonService;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.data.web.SlicedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.SlicedModel;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -43,6 +63,24 @@ class PersonServiceTest {
     @Mock
     PagedResourcesAssembler<PersonDTO> assembler;
 
+    @Mock
+    SlicedResourcesAssembler<PersonDTO> slicedAssembler;
+
+    @Mock
+    PersonBatchRepository personBatchRepository;
+
+    @Mock
+    FileImporterFactory importerFactory;
+
+    @Mock
+    PersonNameIndex nameIndex;
+
+    @Spy
+    PageCountCache pageCounts = new PageCountCache(5000, 100, "exact", new SimpleMeterRegistry());
+
+    @Mock
+    FileExporterFactory exporterFactory;
+
     @BeforeEach
     void setUp() {
         input = new MockPerson();
@@ -163,9 +201,9 @@ class PersonServiceTest {
         // Arrange
         List<Person> entityList = input.mockEntityList();
         Pageable pageable = PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "firstName"));
-        Page<Person> personPage = new PageImpl<>(entityList, pageable, entityList.size());
 
-        when(personRepository.findAll(any(Pageable.class))).thenReturn(personPage);
+        when(personRepository.findAllBy(any(Pageable.class))).thenReturn(entityList);
+        when(personRepository.count()).thenReturn((long) entityList.size());
 
         // Mocking the assembler behavior
         when(assembler.toModel(any(), any(Link.class))).thenAnswer(invocation -> {
@@ -237,4 +275,189 @@ class PersonServiceTest {
         assertEquals("Last Name Test7", personSeven.getLastName());
         assertEquals("Female", personSeven.getGender());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchByNamePrefixUsesSliceWithoutCount() {
+        List<Person> entityList = input.mockEntityList().subList(0, 3);
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(personRepository.findPeopleByNamePrefix(any(), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(entityList, pageable, true));
+        when(slicedAssembler.toModel(any(), any(Link.class))).thenAnswer(invocation -> {
+            Slice<PersonDTO> dtoSlice = invocation.getArgument(0);
+            List<EntityModel<PersonDTO>> entityModels = dtoSlice.getContent().stream()
+                    .map(EntityModel::of)
+                    .collect(Collectors.toList());
+            return SlicedModel.of(entityModels, new SlicedModel.SliceMetadata(dtoSlice.getSize(), dtoSlice.getNumber()),
+                    invocation.<Link>getArgument(1));
+        });
+
+        var result = service.searchByName("Ni_%", "prefix", pageable);
+
+        verify(personRepository).findPeopleByNamePrefix("Ni!_!%%", pageable);
+        verify(personRepository, never()).findPeopleByName(any(), any());
+        verify(personRepository, never()).count();
+        assertEquals(3, result.getContent().size());
+        var personOne = result.getContent().iterator().next().getContent();
+        assertNotNull(personOne);
+        assertTrue(personOne.getRequiredLink("self").getHref().contains("/api/person/v1/0"));
+    }
+
+    @Test
+    void searchByNameContainsKeepsTheSubstringQuery() {
+        Pageable pageable = PageRequest.of(0, 12, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(personRepository.findSliceOfPeopleByName("iko", pageable)).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        service.searchByName("iko", "contains", pageable);
+
+        verify(personRepository).findSliceOfPeopleByName("iko", pageable);
+        verify(personRepository, never()).findPeopleByNamePrefix(any(), any());
+    }
+
+    @Test
+    void scrollSeeksPastTheCursorWithoutCounting() {
+        List<Person> firstRows = input.mockEntityList().subList(0, 3);
+        when(personRepository.findAllBy(PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "firstName", "id"))))
+                .thenReturn(firstRows);
+
+        var firstPage = service.scroll(null, 2, Sort.Direction.ASC);
+
+        assertEquals(2, firstPage.getContent().size());
+        String next = firstPage.getRequiredLink(IanaLinkRelations.NEXT).getHref();
+        String token = next.substring(next.indexOf("cursor=") + "cursor=".length());
+        Person last = firstRows.get(1);
+        assertEquals(new KeysetCursor(Sort.Direction.ASC, last.getFirstName(), last.getId()), KeysetCursor.decode(token));
+
+        when(personRepository.findPageAfter(last.getFirstName(), last.getId(), PageRequest.ofSize(3)))
+                .thenReturn(List.of(firstRows.get(2)));
+
+        var secondPage = service.scroll(token, 2, Sort.Direction.DESC);
+
+        assertEquals(1, secondPage.getContent().size());
+        assertFalse(secondPage.hasLink(IanaLinkRelations.NEXT));
+        verify(personRepository, never()).findPageBefore(any(), any(), any());
+        verify(personRepository, never()).count();
+        verify(personRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void findByNameReusesTheCountUntilAWrite() {
+        List<Person> entityList = input.mockEntityList();
+        Pageable firstPage = PageRequest.of(0, 5, Sort.by(Sort.Direction.ASC, "firstName"));
+        Pageable secondPage = PageRequest.of(1, 5, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(personRepository.findPageOfPeopleByName("Test", firstPage)).thenReturn(entityList.subList(0, 5));
+        when(personRepository.findPageOfPeopleByName("test", secondPage)).thenReturn(entityList.subList(5, 10));
+        when(personRepository.countPeopleByName(any())).thenReturn(14L);
+        when(assembler.toModel(any(), any(Link.class))).thenAnswer(invocation -> {
+            Page<PersonDTO> dtoPage = invocation.getArgument(0);
+            return PagedModel.of(List.<EntityModel<PersonDTO>>of(), new PagedModel.PageMetadata(dtoPage.getSize(),
+                    dtoPage.getNumber(), dtoPage.getTotalElements(), dtoPage.getTotalPages()));
+        });
+
+        assertEquals(14, service.findByName("Test", firstPage).getMetadata().getTotalElements());
+        assertEquals(14, service.findByName("test", secondPage).getMetadata().getTotalElements());
+        verify(personRepository, times(1)).countPeopleByName(any());
+
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+        service.delete(1L);
+        when(personRepository.countPeopleByName(any())).thenReturn(13L);
+
+        assertEquals(13, service.findByName("test", secondPage).getMetadata().getTotalElements());
+        verify(personRepository, times(2)).countPeopleByName(any());
+        verify(personRepository, never()).findPeopleByName(any(), any());
+    }
+
+    @Test
+    void findByNameHydratesOnlyThePagePickedByTheIndex() {
+        Person three = input.mockEntity(3);
+        three.setId(3L);
+        Person one = input.mockEntity(1);
+        one.setId(1L);
+        Pageable pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "firstName"));
+        when(nameIndex.supports("test", pageable)).thenReturn(true);
+        when(nameIndex.search("test", pageable)).thenReturn(new PersonNameIndex.Result(List.of(3L, 1L), 14));
+        when(personRepository.findAllById(List.of(3L, 1L))).thenReturn(List.of(one, three));
+        when(assembler.toModel(any(), any(Link.class))).thenAnswer(invocation -> {
+            Page<PersonDTO> dtoPage = invocation.getArgument(0);
+            List<EntityModel<PersonDTO>> entityModels = dtoPage.getContent().stream()
+                    .map(EntityModel::of)
+                    .collect(Collectors.toList());
+            return PagedModel.of(entityModels, new PagedModel.PageMetadata(dtoPage.getSize(), dtoPage.getNumber(),
+                    dtoPage.getTotalElements(), dtoPage.getTotalPages()), invocation.<Link>getArgument(1));
+        });
+
+        var result = service.findByName("test", pageable);
+
+        verify(personRepository, never()).findPeopleByName(any(), any());
+        assertEquals(14, result.getMetadata().getTotalElements());
+        assertEquals(List.of(3L, 1L), result.getContent().stream().map(model -> model.getContent().getId()).toList());
+    }
+
+    @Test
+    void writesAreReflectedInTheNameIndex() {
+        Person person = input.mockEntity(1);
+        person.setId(1L);
+        when(personRepository.save(person)).thenReturn(person);
+        when(personRepository.findById(1L)).thenReturn(Optional.of(person));
+
+        service.create(input.mockDTO(1));
+        service.delete(1L);
+
+        verify(nameIndex).put(1L, "First Name Test1");
+        verify(nameIndex).remove(1L);
+    }
+
+    @Test
+    void streamMassCreation() throws Exception {
+        String csv = """
+                first_name,last_name,address,gender
+                Ayrton,Senna,São Paulo,Male
+                Nikola,Tesla,Smiljan,Male
+                Marie,Curie,Warsaw,Female
+                Broken
+                Ada,,London,Female
+                """;
+        var file = new MockMultipartFile("file", "people.csv", "text/csv", csv.getBytes());
+        ReflectionTestUtils.setField(service, "importer", importerFactory);
+        ReflectionTestUtils.setField(service, "importChunkSize", 2);
+        when(importerFactory.getImporter("people.csv")).thenReturn(new CsvImporter());
+        doAnswer(invocation -> {
+            List<Person> chunk = invocation.getArgument(0);
+            if (chunk.stream().anyMatch(p -> p.getLastName().isEmpty())) {
+                throw new DataIntegrityViolationException("last_name cannot be empty");
+            }
+            return null;
+        }).when(personBatchRepository).insertAll(anyList());
+
+        var result = service.streamMassCreation(file);
+
+        assertEquals(5, result.getTotalRows());
+        assertEquals(3, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of(4L, 5L), result.getFailedRowNumbers());
+        verify(personBatchRepository, times(4)).insertAll(anyList());
+    }
+
+    @Test
+    void exportAll() throws Exception {
+        List<Person> people = input.mockEntityList().subList(0, 3);
+        ReflectionTestUtils.setField(service, "exporter", exporterFactory);
+        when(exporterFactory.getExporter(MediaTypes.APPLICATION_CSV_VALUE)).thenReturn(new CsvExporter());
+        doAnswer(invocation -> {
+            PersonBatchRepository.PersonStreamHandler handler = invocation.getArgument(0);
+            handler.handle(people.stream());
+            return null;
+        }).when(personBatchRepository).streamAll(any());
+
+        var body = service.exportAll(MediaTypes.APPLICATION_CSV_VALUE);
+        var outputStream = new ByteArrayOutputStream();
+        body.writeTo(outputStream);
+
+        var lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, lines.size());
+        assertEquals("ID,First Name,Last Name,Address,Gender,Enabled", lines.get(0));
+        assertTrue(lines.get(3).startsWith("2,First Name Test2,Last Name Test2"));
+        people.forEach(person -> verify(personBatchRepository).detach(person));
+    }
+}
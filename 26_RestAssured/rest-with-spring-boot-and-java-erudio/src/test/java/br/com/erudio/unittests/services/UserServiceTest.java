@@ -0,0 +1,82 @@
+package br.com.erudio.unittests.services;
+
+import br.com.erudio.model.Permission;
+import br.com.erudio.model.User;
+import br.com.erudio.repository.UserRepository;
+import br.com.erudio.security.UserDetailsSnapshot;
+import br.com.erudio.services.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private UserRepository repository;
+    private SimpleMeterRegistry registry;
+    private UserService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserRepository.class);
+        registry = new SimpleMeterRegistry();
+        service = new UserService(repository, 300, 100, registry);
+    }
+
+    @Test
+    void loadUserByUsernameCachesASnapshot() {
+        when(repository.findByUsername("leandro")).thenReturn(mockUser("leandro"));
+
+        var user = service.loadUserByUsername("leandro");
+        var cached = service.loadUserByUsername("leandro");
+
+        assertInstanceOf(UserDetailsSnapshot.class, user);
+        assertSame(user, cached);
+        assertEquals("pbkdf2-hash", user.getPassword());
+        assertEquals(List.of("ADMIN", "MANAGER"), ((UserDetailsSnapshot) user).getRoles());
+        verify(repository, times(1)).findByUsername("leandro");
+        assertEquals(1, registry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void evictReloadsTheUser() {
+        when(repository.findByUsername("leandro")).thenReturn(mockUser("leandro"));
+
+        service.loadUserByUsername("leandro");
+        service.evict("leandro");
+        service.loadUserByUsername("leandro");
+
+        verify(repository, times(2)).findByUsername("leandro");
+    }
+
+    @Test
+    void missingUsersAreNotCached() {
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("ghost"));
+
+        verify(repository, times(2)).findByUsername("ghost");
+    }
+
+    private User mockUser(String username) {
+        var user = new User();
+        user.setUserName(username);
+        user.setPassword("pbkdf2-hash");
+        user.setAccountNonExpired(true);
+        user.setAccountNonLocked(true);
+        user.setCredentialsNonExpired(true);
+        user.setEnabled(true);
+        user.setPermissions(List.of(permission("ADMIN"), permission("MANAGER")));
+        return user;
+    }
+
+    private Permission permission(String description) {
+        var permission = new Permission();
+        permission.setDescription(description);
+        return permission;
+    }
+}